@@ -0,0 +1,16 @@
+package com.ff.clients_service.config;
+
+import com.ff.clients_service.security.JwtSigningKeys;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
+public class JwtConfig {
+
+    @Bean
+    public JwtSigningKeys jwtSigningKeys(JwtSigningProperties properties) {
+        return JwtSigningKeys.load(properties);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ff.clients_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clés RSA de signature des tokens ({@code jwt.signing.*}).
+ * <p>
+ * Rotation : ajouter la nouvelle clé, la désigner par {@code active-kid}, puis retirer l'ancienne une fois
+ * ses derniers tokens expirés ({@code jwt.expiration}). Toutes les clés listées sont publiées dans le JWKS.
+ */
+@Data
+@ConfigurationProperties("jwt.signing")
+public class JwtSigningProperties {
+
+    // kid de la clé qui signe les nouveaux tokens
+    private String activeKid;
+
+    // kid -> clé privée RSA au format PEM PKCS#8 (file:..., classpath:...)
+    private Map<String, Resource> keys = new LinkedHashMap<>();
+
+    // Développement uniquement : sans clé configurée, génère une clé éphémère au lieu d'échouer au démarrage
+    // (chaque instance signe alors avec sa propre clé, perdue au redémarrage)
+    private boolean ephemeral;
+}
@@ -0,0 +1,33 @@
+package com.ff.clients_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Hachage des mots de passe ({@code auth.password-hashing.*}) : pool dédié et coût bcrypt.
+ */
+@Data
+@ConfigurationProperties("auth.password-hashing")
+public class PasswordHashingProperties {
+
+    // Threads réservés à bcrypt (par défaut : un par cœur)
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // Calculs en attente au-delà desquels les requêtes sont refusées (503)
+    private int queueCapacity = 32;
+
+    // Attente maximale d'un thread HTTP sur le résultat d'un calcul
+    private long maxWaitMs = 5000;
+
+    // Coût bcrypt, identique sur toutes les instances (obligatoire sauf calibrate=true)
+    private Integer strength;
+
+    // Développement uniquement : mesure le coût adapté à la machine (sur targetLatencyMs) pour le fixer ensuite
+    private boolean calibrate;
+
+    private long targetLatencyMs = 250;
+
+    private int minStrength = 10;
+
+    private int maxStrength = 14;
+}
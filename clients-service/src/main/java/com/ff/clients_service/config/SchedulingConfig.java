@@ -0,0 +1,12 @@
+package com.ff.clients_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tâches périodiques (purge des refresh tokens, synchronisation des révocations), désactivables (tests)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "jwt.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,11 +1,14 @@
 package com.ff.clients_service.config;
 
+import com.ff.clients_service.security.BoundedBCryptPasswordEncoder;
 import com.ff.clients_service.security.JwtAuthenticationFilter;
+import com.ff.clients_service.security.PasswordHashingExecutor;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,13 +16,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 import java.io.IOException;
 
 @Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
@@ -29,7 +32,8 @@ public class SecurityConfig {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**", "/v3/api-docs/**",
+                        .requestMatchers("/api/client/auth/logout").authenticated()
+                        .requestMatchers("/api/client/auth/**", "/.well-known/jwks.json", "/.well-known/revoked-tokens", "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html").permitAll()
                         .anyRequest().authenticated()
@@ -40,8 +44,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, PasswordHashingExecutor executor) {
+        // Coût fixé en configuration : un coût recalculé à chaque démarrage différerait d'une instance à l'autre
+        Integer strength = properties.getStrength();
+        if (strength == null) {
+            if (!properties.isCalibrate()) {
+                throw new IllegalStateException("auth.password-hashing.strength doit être défini "
+                        + "(auth.password-hashing.calibrate=true pour mesurer une valeur à fixer)");
+            }
+            strength = BoundedBCryptPasswordEncoder.calibrate(properties.getTargetLatencyMs(),
+                    properties.getMinStrength(), properties.getMaxStrength());
+        }
+        return new BoundedBCryptPasswordEncoder(strength, executor);
     }
 
     @Bean
@@ -3,10 +3,12 @@ package com.ff.clients_service.controller;
 import com.ff.clients_service.dto.AuthRequest;
 import com.ff.clients_service.dto.AuthResponse;
 import com.ff.clients_service.dto.RegisterRequest;
+import com.ff.clients_service.security.JwtPrincipal;
 import com.ff.clients_service.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -30,4 +32,13 @@ public class AuthController {
     public AuthResponse refresh(@RequestParam String refreshToken){
         return authService.refreshToken(refreshToken);
     }
+
+    // Révoque l'access token courant (jti) et, s'il est fourni, la famille du refresh token.
+    // Effet sous quelques secondes ailleurs : autres instances (sync) et services jwt-verifier (/.well-known/revoked-tokens)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal JwtPrincipal principal,
+                                       @RequestParam(required = false) String refreshToken) {
+        authService.logout(principal, refreshToken);
+        return ResponseEntity.noContent().build();
+    }
 }
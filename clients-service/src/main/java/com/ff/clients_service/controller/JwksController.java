@@ -0,0 +1,41 @@
+package com.ff.clients_service.controller;
+
+import com.ff.clients_service.security.JwtSigningKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clés publiques de vérification des tokens (JWKS) : les autres services vérifient les tokens localement.
+ * Le document ne change qu'au redémarrage, il est donc servi avec un ETag et un Cache-Control public.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtSigningKeys signingKeys;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtSigningKeys signingKeys, @Value("${jwt.jwks.max-age-seconds:300}") long maxAgeSeconds) {
+        this.signingKeys = signingKeys;
+        this.etag = "\"" + Integer.toHexString(signingKeys.jwksJson().hashCode()) + "\"";
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(WebRequest request) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(signingKeys.jwksJson());
+    }
+}
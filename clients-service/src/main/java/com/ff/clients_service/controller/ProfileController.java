@@ -2,9 +2,11 @@ package com.ff.clients_service.controller;
 
 import com.ff.clients_service.dto.ProfileUpdateRequest;
 import com.ff.clients_service.entity.Profile;
+import com.ff.clients_service.security.JwtPrincipal;
 import com.ff.clients_service.service.ProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
@@ -32,6 +34,12 @@ public class ProfileController {
         return ResponseEntity.ok(updateProf);
     }
 
+    // Identité de l'utilisateur connecté, lue dans le token : aucune requête en base
+    @GetMapping("/me")
+    public ResponseEntity<JwtPrincipal> me(@AuthenticationPrincipal JwtPrincipal principal){
+        return ResponseEntity.ok(principal);
+    }
+
     @GetMapping
     public ResponseEntity<Profile> getProfile(Principal principal){
         String email = principal.getName();
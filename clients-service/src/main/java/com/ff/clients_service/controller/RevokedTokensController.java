@@ -0,0 +1,30 @@
+package com.ff.clients_service.controller;
+
+import com.ff.clients_service.dto.RevokedTokensResponse;
+import com.ff.clients_service.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Flux des access tokens révoqués (logout), interrogé périodiquement par jwt-verifier comme le JWKS :
+ * un token révoqué est aussi refusé par les services qui vérifient les tokens localement.
+ * Seuls des jti et des dates d'expiration sont publiés, rien qui permette de s'authentifier.
+ */
+@RestController
+@RequiredArgsConstructor
+public class RevokedTokensController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @GetMapping(value = "/.well-known/revoked-tokens", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RevokedTokensResponse> revokedTokens(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(tokenRevocationService.revokedSince(since));
+    }
+}
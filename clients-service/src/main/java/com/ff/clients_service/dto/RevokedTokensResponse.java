@@ -0,0 +1,23 @@
+package com.ff.clients_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Révocations encore actives enregistrées depuis {@code since}, pour les services qui vérifient les tokens
+ * localement (jwt-verifier). {@code until} est la valeur de {@code since} à renvoyer à l'appel suivant.
+ * Dates en millisecondes epoch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedTokensResponse {
+    private long until;
+    private List<Entry> revoked;
+
+    public record Entry(String jti, long expiresAt) {
+    }
+}
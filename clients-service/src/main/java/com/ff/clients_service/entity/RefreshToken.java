@@ -0,0 +1,39 @@
+package com.ff.clients_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Refresh token stocké haché (SHA-256) : la valeur en clair n'est connue que du client.
+ * Chaque rotation crée un nouveau token dans la même famille et marque l'ancien comme utilisé ;
+ * la présentation d'un token déjà utilisé révoque toute la famille.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "ix_refresh_token_family", columnList = "family_id"),
+        @Index(name = "ix_refresh_token_expires", columnList = "expires_at")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    private Instant usedAt;
+}
@@ -0,0 +1,34 @@
+package com.ff.clients_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Access token révoqué (logout, compromission), identifié par son jti. Source de la liste en mémoire
+ * de chaque instance ; la ligne est purgée une fois le token expiré.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "ix_revoked_token_expires", columnList = "expires_at"),
+        @Index(name = "ix_revoked_token_revoked_at", columnList = "revoked_at")
+})
+public class RevokedToken {
+    @Id
+    @Column(length = 36)
+    private String jti;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
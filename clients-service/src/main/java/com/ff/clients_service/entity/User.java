@@ -25,7 +25,6 @@ public class User {
     @Column(nullable=false)
     @Enumerated(EnumType.STRING)
     private UserRole role;
-    private String refreshToken;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.ff.clients_service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt exécuté sur le {@link PasswordHashingExecutor}. {@link #upgradeEncoding} signale les hashs d'un coût
+ * inférieur au coût courant : DaoAuthenticationProvider les recalcule alors au login réussi
+ * (via UserDetailsPasswordService). Un hash plus coûteux est conservé : jamais d'affaiblissement.
+ */
+@Slf4j
+public class BoundedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final BCryptPasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    private final int strength;
+
+    public BoundedBCryptPasswordEncoder(int strength, PasswordHashingExecutor executor) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.strength = strength;
+    }
+
+    /**
+     * Coût le plus élevé dont le hachage reste sous {@code targetLatencyMs} sur cette machine.
+     * Un seul calcul est mesuré au coût minimal : chaque point de coût double ensuite le temps.
+     */
+    public static int calibrate(long targetLatencyMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_PASSWORD); // chauffe
+        long start = System.nanoTime();
+        probe.encode(CALIBRATION_PASSWORD);
+        double elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.001);
+
+        int strength = minStrength;
+        while (strength < maxStrength && elapsedMs * 2 <= targetLatencyMs) {
+            elapsedMs *= 2;
+            strength++;
+        }
+        log.warn("BCrypt cost calibrated to {} (~{} ms, target {} ms): set auth.password-hashing.strength={} on every instance",
+                strength, Math.round(elapsedMs), targetLatencyMs, strength);
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
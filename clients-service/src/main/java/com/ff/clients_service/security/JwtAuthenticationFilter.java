@@ -1,5 +1,7 @@
 package com.ff.clients_service.security;
 
+import com.ff.clients_service.entity.UserRole;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,18 +9,25 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    // Une liste d'autorités immuable par rôle, partagée par toutes les requêtes
+    private static final Map<UserRole, List<GrantedAuthority>> AUTHORITIES = authoritiesByRole();
+
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenDenylist denylist;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -27,29 +36,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String email;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        email = jwtService.extractEmail(jwt);
-
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(email);
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        // Une seule vérification du token (signature + expiration), ou aucune s'il est déjà dans le cache de JwtService
+        JwtClaims claims;
+        try {
+            claims = jwtService.parse(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Token révoqué (logout) : contrôle en mémoire, sans allocation ni requête SQL
+        if (denylist.isRevoked(claims)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Authentification construite à partir des seuls claims vérifiés : aucune requête SQL par appel
+        if (claims.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            var principal = new JwtPrincipal(claims.userId(), claims.subject(), claims.role(),
+                    claims.jti(), claims.expiresAt());
+            var authToken = new UsernamePasswordAuthenticationToken(
+                    principal, null, AUTHORITIES.get(claims.role())
+            );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    private static Map<UserRole, List<GrantedAuthority>> authoritiesByRole() {
+        Map<UserRole, List<GrantedAuthority>> authorities = new EnumMap<>(UserRole.class);
+        for (UserRole role : UserRole.values()) {
+            authorities.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+        return authorities;
+    }
 }
@@ -0,0 +1,18 @@
+package com.ff.clients_service.security;
+
+import com.ff.clients_service.entity.UserRole;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims d'un token dont la signature et l'expiration ont déjà été vérifiées. Immuable : partagé par le cache
+ * de JwtService entre toutes les requêtes portant le même token. Le jti est gardé sous forme d'UUID : le contrôle
+ * de révocation ({@link TokenDenylist}) le consulte sans rien allouer.
+ */
+public record JwtClaims(UUID jti, String subject, Long userId, UserRole role, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ff.clients_service.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ff.clients_service.entity.UserRole;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Utilisateur authentifié, reconstruit uniquement à partir des claims vérifiés du token (aucune lecture en base).
+ * Le jti et l'exp du token servent à sa révocation (logout).
+ * {@link #getName()} renvoie l'email : {@code Principal.getName()} dans les contrôleurs reste inchangé.
+ */
+public record JwtPrincipal(Long userId, String email, UserRole role, @JsonIgnore UUID jti, @JsonIgnore Instant expiresAt)
+        implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,54 +1,170 @@
 package com.ff.clients_service.security;
 
+import com.ff.clients_service.entity.User;
+import com.ff.clients_service.entity.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtSigningKeys signingKeys;
+    private final JwtParser parser;
+    private final long jwtExpirationMs;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    /**
+     * Tokens déjà vérifiés, indexés par l'empreinte SHA-256 du token (le token lui-même n'est pas conservé),
+     * chaque entrée expirant à l'exp du token : une requête qui réutilise le même bearer ne revérifie pas la signature.
+     */
+    private final Cache<ByteBuffer, JwtClaims> verifiedTokens;
 
-    public String generateToken(String email) {
+    public JwtService(JwtSigningKeys signingKeys,
+                      @Value("${jwt.expiration}") long jwtExpirationMs,
+                      @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.signingKeys = signingKeys;
+        // Clé de vérification choisie par le kid de l'en-tête ; un token HMAC est refusé (clé publique RSA)
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = signingKeys.publicKey(header.getKeyId());
+                        if (key == null) {
+                            throw new MalformedJwtException("kid inconnu : " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtClaims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Claims portant l'identité complète : le filtre d'authentification n'a pas besoin de relire l'utilisateur
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(email)
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.activeKid())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(signingKeys.signingKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Vérifie le token (signature, expiration) une seule fois et renvoie ses claims.
+     * Un token déjà vérifié et non expiré est servi par le cache, sans nouvelle vérification de signature.
+     *
+     * @throws JwtException si le token est invalide ou expiré
+     */
+    public JwtClaims parse(String token) {
+        ByteBuffer key = hash(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+        JwtClaims claims = verify(token);
+        verifiedTokens.put(key, claims);
+        return claims;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    public String extractEmail(String token) {
+        return parse(token).subject();
     }
 
     public boolean isTokenValid(String token, String userEmail) {
-        final String email = extractEmail(token);
-        return (email.equals(userEmail) && !isTokenExpired(token));
+        try {
+            JwtClaims claims = parse(token);
+            return claims.subject().equals(userEmail) && !claims.isExpired(Instant.now());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private JwtClaims verify(String token) {
+        Claims body = parser.parseClaimsJws(token).getBody();
+        if (body.getExpiration() == null) {
+            throw new ExpiredJwtException(null, body, "Token sans date d'expiration");
+        }
+        // Tokens émis avant l'ajout des claims uid/role : refusés, l'utilisateur se reconnecte
+        Number userId = body.get(USER_ID_CLAIM, Number.class);
+        String role = body.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            throw new MalformedJwtException("Claims uid/role absents du token");
+        }
+        // jti obligatoire : sans lui, le token ne pourrait pas être révoqué
+        UUID jti;
+        try {
+            jti = UUID.fromString(body.getId());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new MalformedJwtException("Claim jti absent ou invalide");
+        }
+        UserRole userRole;
+        try {
+            userRole = UserRole.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Rôle inconnu : " + role);
+        }
+        return new JwtClaims(
+                jti,
+                body.getSubject(),
+                userId.longValue(),
+                userRole,
+                body.getIssuedAt() == null ? null : body.getIssuedAt().toInstant(),
+                body.getExpiration().toInstant());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // ByteBuffer compare son contenu (equals/hashCode) : clé compacte de 32 octets
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 }
@@ -0,0 +1,153 @@
+package com.ff.clients_service.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Liste en mémoire des access tokens révoqués (par jti), consultée à chaque requête authentifiée.
+ * <p>
+ * Premier niveau : un filtre de Bloom par tranche horaire d'expiration, dans un anneau couvrant la durée de vie
+ * maximale d'un token. La tranche d'un token se déduit de son exp, et une tranche échue est simplement écrasée :
+ * les entrées disparaissent à l'expiration des tokens sans parcours. Second niveau : l'ensemble exact des jti
+ * révoqués, consulté uniquement quand le filtre répond "peut-être" (faux positifs).
+ * <p>
+ * Un token dont l'exp sort de la fenêtre de l'anneau (jwt.expiration allongé depuis son émission, horloges
+ * décalées) n'a pas de tranche : il n'est filtré que par l'ensemble exact {@code unbucketed}, vide en temps normal.
+ * <p>
+ * {@link #isRevoked(JwtClaims)} est en O(1) et n'alloue rien : uniquement des lectures de tableaux et de
+ * l'ensemble exact avec l'UUID déjà présent dans les claims.
+ */
+@Component
+public class TokenDenylist {
+
+    static final long BUCKET_MS = 3_600_000L;
+    private static final int HASH_COUNT = 4;
+
+    private final AtomicReferenceArray<Bucket> ring;
+    private final int bitsMask;
+    private final ConcurrentHashMap<UUID, Long> exact = new ConcurrentHashMap<>();
+    // Révocations hors fenêtre, sans filtre de Bloom
+    private final ConcurrentHashMap<UUID, Long> unbucketed = new ConcurrentHashMap<>();
+
+    public TokenDenylist(@Value("${jwt.expiration}") long jwtExpirationMs,
+                         @Value("${jwt.revocation.bloom-bits-per-bucket:65536}") int bitsPerBucket) {
+        if (Integer.bitCount(bitsPerBucket) != 1 || bitsPerBucket < 64) {
+            throw new IllegalArgumentException("jwt.revocation.bloom-bits-per-bucket doit être une puissance de 2 >= 64");
+        }
+        // Une tranche de plus que la durée de vie d'un token, plus la tranche en cours
+        this.ring = new AtomicReferenceArray<>((int) (jwtExpirationMs / BUCKET_MS) + 2);
+        this.bitsMask = bitsPerBucket - 1;
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        UUID jti = claims.jti();
+        long bucketId = claims.expiresAt().toEpochMilli() / BUCKET_MS;
+        Bucket bucket = ring.get(slot(bucketId));
+        if (bucket != null && bucket.id == bucketId && bucket.mightContain(jti, bitsMask) && exact.containsKey(jti)) {
+            return true;
+        }
+        // Révoqué hors fenêtre, y compris si sa tranche a été créée depuis par une autre révocation
+        return !unbucketed.isEmpty() && unbucketed.containsKey(jti);
+    }
+
+    public void revoke(UUID jti, Instant expiresAt) {
+        long expiresAtMs = expiresAt.toEpochMilli();
+        Bucket bucket = bucketFor(expiresAtMs / BUCKET_MS, System.currentTimeMillis() / BUCKET_MS);
+        if (bucket == null) {
+            unbucketed.put(jti, expiresAtMs);
+            return;
+        }
+        exact.put(jti, expiresAtMs);
+        bucket.add(jti, bitsMask);
+    }
+
+    /**
+     * Retire de l'ensemble exact les jti dont le token a expiré (les filtres de Bloom échus sont écrasés à la volée).
+     */
+    public int evictExpired(Instant now) {
+        long nowMs = now.toEpochMilli();
+        int before = exact.size() + unbucketed.size();
+        exact.values().removeIf(expiresAtMs -> expiresAtMs <= nowMs);
+        unbucketed.values().removeIf(expiresAtMs -> expiresAtMs <= nowMs);
+        return before - exact.size() - unbucketed.size();
+    }
+
+    public int size() {
+        return exact.size() + unbucketed.size();
+    }
+
+    // Tranche de l'anneau pour cette expiration, ou null hors fenêtre : une tranche encore vivante n'est jamais écrasée
+    private Bucket bucketFor(long bucketId, long currentBucketId) {
+        if (bucketId < currentBucketId || bucketId >= currentBucketId + ring.length()) {
+            return null;
+        }
+        int slot = slot(bucketId);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.id == bucketId) {
+                return current;
+            }
+            if (current != null && current.id > bucketId) {
+                return null;
+            }
+            Bucket fresh = new Bucket(bucketId, bitsMask + 1);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long bucketId) {
+        return (int) Math.floorMod(bucketId, (long) ring.length());
+    }
+
+    private static final class Bucket {
+        private final long id;
+        private final AtomicLongArray bits;
+
+        private Bucket(long id, int bitCount) {
+            this.id = id;
+            this.bits = new AtomicLongArray(bitCount / Long.SIZE);
+        }
+
+        // Double hachage (Kirsch-Mitzenmacher) sur les 128 bits de l'UUID
+        void add(UUID jti, int mask) {
+            long h1 = mix(jti.getMostSignificantBits());
+            long h2 = mix(jti.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = (int) ((h1 + i * h2) & mask);
+                int word = bit >>> 6;
+                long flag = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & flag) == 0 && !bits.compareAndSet(word, current, current | flag));
+            }
+        }
+
+        boolean mightContain(UUID jti, int mask) {
+            long h1 = mix(jti.getMostSignificantBits());
+            long h2 = mix(jti.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = (int) ((h1 + i * h2) & mask);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Finaliseur de SplitMix64
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.ff.clients_service.dto.*;
 import com.ff.clients_service.entity.User;
 import com.ff.clients_service.entity.UserRole;
 import com.ff.clients_service.repository.UserRepository;
+import com.ff.clients_service.security.JwtPrincipal;
 import com.ff.clients_service.security.JwtService;
+import com.ff.clients_service.utils.InvalidRefreshTokenException;
 import com.ff.clients_service.utils.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
@@ -19,6 +21,8 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final AuthenticationManager authManager;
 
     public AuthResponse register(RegisterRequest request) {
@@ -33,11 +37,8 @@ public class AuthService {
                 .createdAt(LocalDateTime.now())
                 .build();
         var savedUser = userRepository.save(user);
-        var accessToken = jwtService.generateToken(savedUser.getEmail());
-        var refreshToken = jwtService.generateToken(savedUser.getEmail());
-
-        savedUser.setRefreshToken(refreshToken);
-        userRepository.save(savedUser);
+        var accessToken = jwtService.generateToken(savedUser);
+        var refreshToken = refreshTokenService.issue(savedUser.getId());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -52,11 +53,8 @@ public class AuthService {
         );
         var user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow();
-        var accessToken = jwtService.generateToken(user.getEmail());
-        var refreshToken = jwtService.generateToken(user.getEmail());
-
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+        var accessToken = jwtService.generateToken(user);
+        var refreshToken = refreshTokenService.issue(user.getId());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -66,20 +64,22 @@ public class AuthService {
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        String email = jwtService.extractEmail(refreshToken);
-        var user = userRepository.findByEmail(email)
-                .orElseThrow();
-
-        if (!refreshToken.equals(user.getRefreshToken()) || !jwtService.isTokenValid(refreshToken, email)) {
-            throw new RuntimeException("Invalid Refresh Token");
-        }
+        var rotation = refreshTokenService.rotate(refreshToken);
+        var user = userRepository.findById(rotation.userId())
+                .orElseThrow(InvalidRefreshTokenException::new);
 
-        var newAccessToken = jwtService.generateToken(email);
+        var newAccessToken = jwtService.generateToken(user);
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(refreshToken)
+                .refreshToken(rotation.refreshToken())
                 .role(user.getRole())
                 .build();
     }
 
+    public void logout(JwtPrincipal principal, String refreshToken) {
+        tokenRevocationService.revoke(principal);
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken, principal.userId());
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.ff.clients_service.service;
+
+import com.ff.clients_service.entity.RefreshToken;
+import com.ff.clients_service.repository.RefreshTokenRepository;
+import com.ff.clients_service.utils.InvalidRefreshTokenException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opaques, stockés hachés dans leur propre table (hors de {@code users}).
+ * Un login coûte un seul INSERT ; une rotation, une lecture sur l'index unique du hash,
+ * un UPDATE conditionnel et un INSERT.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    @Value("${jwt.refresh.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TransactionTemplate transactionTemplate,
+                               @Value("${jwt.refresh.expiration:604800000}") long ttlMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    /**
+     * Token émis après un succès (login, inscription) : il ouvre une nouvelle famille.
+     */
+    public String issue(Long userId) {
+        return create(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Échange un refresh token contre un nouveau de la même famille. Un token inconnu, expiré ou déjà
+     * échangé est refusé ; dans ce dernier cas (vol probable), toute la famille est révoquée.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        Instant now = Instant.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException();
+        }
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            refreshTokenRepository.deleteFamily(current.getFamilyId());
+            log.warn("Refresh token reused, family {} of user {} revoked", current.getFamilyId(), current.getUserId());
+            throw new InvalidRefreshTokenException();
+        }
+        return new Rotation(current.getUserId(), create(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * Logout : révoque la famille du refresh token présenté, s'il appartient bien à l'utilisateur.
+     */
+    @Transactional
+    public void revoke(String rawToken, Long userId) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .filter(token -> token.getUserId().equals(userId))
+                .ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Supprime les tokens expirés par lots (un lot par transaction) pour ne pas verrouiller la table.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findExpiredIds(now, Limit.of(purgeBatchSize));
+                if (!ids.isEmpty()) {
+                    refreshTokenRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        log.debug("{} refresh tokens expirés supprimés", total);
+        return total;
+    }
+
+    private String create(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(Instant.now().plus(ttl))
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(Long userId, String refreshToken) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.ff.clients_service.service;
+
+import com.ff.clients_service.dto.RevokedTokensResponse;
+import com.ff.clients_service.entity.RevokedToken;
+import com.ff.clients_service.repository.RevokedTokenRepository;
+import com.ff.clients_service.security.JwtPrincipal;
+import com.ff.clients_service.security.TokenDenylist;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Révocation des access tokens : table revoked_tokens (partagée entre instances) recopiée dans le
+ * {@link TokenDenylist} en mémoire, seul consulté par le filtre d'authentification.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenDenylist denylist;
+    private final Duration syncOverlap;
+
+    // Date de la dernière synchronisation depuis la table (recouvrement : les révocations concurrentes ne sont pas perdues)
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, TokenDenylist denylist,
+                                  @Value("${jwt.revocation.sync-overlap-ms:5000}") long syncOverlapMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.denylist = denylist;
+        this.syncOverlap = Duration.ofMillis(syncOverlapMs);
+    }
+
+    /**
+     * Révoque le token de la requête courante. Effet dès le commit sur cette instance, au prochain
+     * {@link #sync()} sur les autres.
+     */
+    @Transactional
+    public void revoke(JwtPrincipal principal) {
+        if (!principal.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(principal.jti().toString())
+                .userId(principal.userId())
+                .expiresAt(principal.expiresAt())
+                .revokedAt(Instant.now())
+                .build());
+        // Mémoire mise à jour après le commit seulement : un rollback ne laisse pas de révocation fantôme
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                denylist.revoke(principal.jti(), principal.expiresAt());
+            }
+        });
+    }
+
+    /**
+     * Révocations encore actives enregistrées après {@code sinceMs} (toutes instances), pour le flux consommé
+     * par jwt-verifier. Le client rappelle avec {@code until} moins un recouvrement, comme {@link #sync()}.
+     */
+    @Transactional(readOnly = true)
+    public RevokedTokensResponse revokedSince(long sinceMs) {
+        Instant now = Instant.now();
+        List<RevokedTokensResponse.Entry> revoked = new ArrayList<>();
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(Instant.ofEpochMilli(sinceMs), now)) {
+            revoked.add(new RevokedTokensResponse.Entry(token.getJti(), token.getExpiresAt().toEpochMilli()));
+        }
+        return new RevokedTokensResponse(now.toEpochMilli(), revoked);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = syncedUntil.equals(Instant.EPOCH) ? Instant.EPOCH : syncedUntil.minus(syncOverlap);
+        int loaded = 0;
+        for (RevokedToken revoked : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            denylist.revoke(UUID.fromString(revoked.getJti()), revoked.getExpiresAt());
+            loaded++;
+        }
+        syncedUntil = now;
+        log.debug("{} révocations chargées", loaded);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        int evicted = denylist.evictExpired(now);
+        log.debug("{} révocations expirées supprimées ({} en mémoire)", deleted, evicted);
+    }
+}
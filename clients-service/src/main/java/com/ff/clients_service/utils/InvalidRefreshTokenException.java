@@ -0,0 +1,7 @@
+package com.ff.clients_service.utils;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException() {
+        super("Invalid Refresh Token");
+    }
+}
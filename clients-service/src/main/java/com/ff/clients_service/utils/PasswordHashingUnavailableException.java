@@ -0,0 +1,7 @@
+package com.ff.clients_service.utils;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
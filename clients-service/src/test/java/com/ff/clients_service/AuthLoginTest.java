@@ -0,0 +1,77 @@
+package com.ff.clients_service;
+
+import com.ff.clients_service.dto.AuthRequest;
+import com.ff.clients_service.entity.User;
+import com.ff.clients_service.entity.UserRole;
+import com.ff.clients_service.repository.UserRepository;
+import com.ff.clients_service.security.BoundedBCryptPasswordEncoder;
+import com.ff.clients_service.service.AuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthLoginTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void login_shouldRehashPasswordStoredWithWeakerCost() {
+        BoundedBCryptPasswordEncoder passwordEncoder = (BoundedBCryptPasswordEncoder) encoder;
+        String legacyHash = new BCryptPasswordEncoder(passwordEncoder.getStrength() - 1).encode("secret");
+        userRepository.save(User.builder()
+                .email("legacy@example.com")
+                .password(legacyHash)
+                .role(UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        authService.authenticate(new AuthRequest("legacy@example.com", "secret"));
+
+        String storedHash = userRepository.findByEmail("legacy@example.com").orElseThrow().getPassword();
+        assertNotEquals(legacyHash, storedHash);
+        assertFalse(passwordEncoder.upgradeEncoding(storedHash));
+        assertTrue(passwordEncoder.matches("secret", storedHash));
+
+        // Le hash est désormais au bon coût : un second login ne le modifie plus
+        authService.authenticate(new AuthRequest("legacy@example.com", "secret"));
+        assertEquals(storedHash, userRepository.findByEmail("legacy@example.com").orElseThrow().getPassword());
+    }
+
+    @Test
+    void login_shouldKeepPasswordStoredWithStrongerCost() {
+        BoundedBCryptPasswordEncoder passwordEncoder = (BoundedBCryptPasswordEncoder) encoder;
+        String strongerHash = new BCryptPasswordEncoder(passwordEncoder.getStrength() + 1).encode("secret");
+        userRepository.save(User.builder()
+                .email("strong@example.com")
+                .password(strongerHash)
+                .role(UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        authService.authenticate(new AuthRequest("strong@example.com", "secret"));
+
+        assertEquals(strongerHash, userRepository.findByEmail("strong@example.com").orElseThrow().getPassword());
+    }
+}
@@ -2,8 +2,10 @@ package com.ff.clients_service;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class ClientsServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,194 @@
+package com.ff.clients_service;
+
+import com.ff.clients_service.entity.User;
+import com.ff.clients_service.entity.UserRole;
+import com.ff.clients_service.repository.RevokedTokenRepository;
+import com.ff.clients_service.repository.UserRepository;
+import com.ff.clients_service.security.JwtClaims;
+import com.ff.clients_service.security.JwtPrincipal;
+import com.ff.clients_service.security.JwtService;
+import com.ff.clients_service.security.JwtSigningKeys;
+import com.ff.clients_service.security.TokenDenylist;
+import com.ff.clients_service.service.RefreshTokenService;
+import com.ff.clients_service.service.TokenRevocationService;
+import com.ff.clients_service.utils.InvalidRefreshTokenException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtSigningKeys signingKeys;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenDenylist denylist;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email("admin@example.com")
+                .password("{noop}secret")
+                .role(UserRole.ADMIN)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void authenticatedGet_shouldNotQueryTheDatabase() throws Exception {
+        String token = jwtService.generateToken(user);
+        SqlStatementCounter.reset();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/client/profile/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.userId").value(user.getId()))
+                    .andExpect(jsonPath("$.email").value("admin@example.com"))
+                    .andExpect(jsonPath("$.role").value("ADMIN"));
+        }
+
+        assertEquals(0, SqlStatementCounter.count());
+    }
+
+    @Test
+    void tokenWithoutRoleClaims_shouldBeRejected() throws Exception {
+        // Format des tokens émis avant les claims uid/role
+        String legacy = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.activeKid())
+                .setSubject(user.getEmail())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(signingKeys.signingKey(), SignatureAlgorithm.RS256)
+                .compact();
+
+        mockMvc.perform(get("/api/client/profile/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + legacy))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/client/profile/me"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void jwks_shouldPublishActiveKeyWithCacheHeaders() throws Exception {
+        String etag = mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[0].kid").value(signingKeys.activeKid()))
+                .andExpect(jsonPath("$.keys[0].alg").value("RS256"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void logout_shouldRevokeOnlyTheCurrentAccessToken() throws Exception {
+        String token = jwtService.generateToken(user);
+        String otherSession = jwtService.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user.getId());
+
+        mockMvc.perform(post("/api/client/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .param("refreshToken", refreshToken))
+                .andExpect(status().isNoContent());
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/client/profile/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/client/profile/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + otherSession))
+                .andExpect(status().isOk());
+        assertEquals(0, SqlStatementCounter.count());
+        assertEquals(1, revokedTokenRepository.count());
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(refreshToken));
+
+        // Sans token valide, pas de logout
+        mockMvc.perform(post("/api/client/auth/logout")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void revokedTokensFeed_shouldPublishLoggedOutJtiForLocalVerifiers() throws Exception {
+        String token = jwtService.generateToken(user);
+        String jti = jwtService.parse(token).jti().toString();
+        mockMvc.perform(post("/api/client/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/.well-known/revoked-tokens").param("since", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revoked[0].jti").value(jti))
+                .andExpect(jsonPath("$.until").isNumber());
+        mockMvc.perform(get("/.well-known/revoked-tokens").param("since", String.valueOf(System.currentTimeMillis() + 1_000)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revoked").isEmpty());
+    }
+
+    @Test
+    void revoke_shouldNotReachTheDenylistWhenTheTransactionRollsBack() {
+        UUID jti = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getEmail(), user.getRole(), jti, expiresAt);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tokenRevocationService.revoke(principal);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, revokedTokenRepository.count());
+        assertFalse(denylist.isRevoked(new JwtClaims(jti, user.getEmail(), user.getId(), user.getRole(), Instant.now(), expiresAt)));
+    }
+}
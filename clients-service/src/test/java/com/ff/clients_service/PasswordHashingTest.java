@@ -0,0 +1,78 @@
+package com.ff.clients_service;
+
+import com.ff.clients_service.config.PasswordHashingProperties;
+import com.ff.clients_service.security.BoundedBCryptPasswordEncoder;
+import com.ff.clients_service.security.PasswordHashingExecutor;
+import com.ff.clients_service.utils.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    private PasswordHashingExecutor newExecutor(int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        executor = new PasswordHashingExecutor(properties, meterRegistry);
+        return executor;
+    }
+
+    @Test
+    void saturatedPool_shouldRejectImmediately() throws Exception {
+        PasswordHashingExecutor executor = newExecutor(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.call(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.call(() -> "queued"));
+        while (meterRegistry.get("auth.password.hashing.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> executor.call(() -> "rejected"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void upgradeEncoding_shouldOnlyFlagWeakerCost() {
+        BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(5, newExecutor(1, 4));
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        // Instance configurée plus bas qu'une autre : le hash plus coûteux n'est ni affaibli ni réécrit
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertTrue(encoder.matches("secret", new BCryptPasswordEncoder(6).encode("secret")));
+    }
+
+    @Test
+    void calibrate_shouldStayWithinBounds() {
+        assertEquals(4, BoundedBCryptPasswordEncoder.calibrate(0, 4, 6));
+        assertEquals(6, BoundedBCryptPasswordEncoder.calibrate(60_000, 4, 6));
+    }
+}
@@ -0,0 +1,102 @@
+package com.ff.clients_service;
+
+import com.ff.clients_service.dto.AuthRequest;
+import com.ff.clients_service.dto.AuthResponse;
+import com.ff.clients_service.dto.RegisterRequest;
+import com.ff.clients_service.entity.RefreshToken;
+import com.ff.clients_service.entity.UserRole;
+import com.ff.clients_service.repository.RefreshTokenRepository;
+import com.ff.clients_service.repository.UserRepository;
+import com.ff.clients_service.service.AuthService;
+import com.ff.clients_service.service.RefreshTokenService;
+import com.ff.clients_service.utils.InvalidRefreshTokenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private AuthResponse register(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("secret123");
+        request.setRole(UserRole.USER);
+        return authService.register(request);
+    }
+
+    @Test
+    void registerAndLogin_shouldEachWriteASingleRow() {
+        SqlStatementCounter.reset();
+        AuthResponse registered = register("writes@example.com");
+        assertEquals(2, SqlStatementCounter.count("insert")); // utilisateur + refresh token
+        assertEquals(0, SqlStatementCounter.count("update"));
+
+        SqlStatementCounter.reset();
+        AuthResponse loggedIn = authService.authenticate(new AuthRequest("writes@example.com", "secret123"));
+        assertEquals(1, SqlStatementCounter.count("insert"));
+        assertEquals(0, SqlStatementCounter.count("update"));
+
+        assertNotEquals(registered.getRefreshToken(), loggedIn.getRefreshToken());
+        // Seul le hash est stocké
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(t -> t.getTokenHash().equals(loggedIn.getRefreshToken())));
+    }
+
+    @Test
+    void refresh_shouldRotateAndRevokeFamilyOnReuse() {
+        String first = register("rotate@example.com").getRefreshToken();
+
+        AuthResponse refreshed = authService.refreshToken(first);
+        assertNotEquals(first, refreshed.getRefreshToken());
+        assertNotNull(refreshed.getAccessToken());
+
+        // Rejeu de l'ancien token : refusé, et le token courant de la famille est révoqué
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(first));
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken(refreshed.getRefreshToken()));
+        assertEquals(0, refreshTokenRepository.count());
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteOnlyExpiredTokens() {
+        register("purge@example.com");
+        for (int i = 0; i < 3; i++) {
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .tokenHash("expired-" + i)
+                    .familyId("family-" + i)
+                    .userId(1L)
+                    .expiresAt(Instant.now().minus(1, ChronoUnit.MINUTES))
+                    .build());
+        }
+
+        assertEquals(3, refreshTokenService.purgeExpired());
+        assertEquals(1, refreshTokenRepository.count());
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refreshToken("unknown"));
+    }
+}
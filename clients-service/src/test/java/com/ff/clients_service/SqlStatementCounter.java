@@ -0,0 +1,38 @@
+package com.ff.clients_service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate (enregistré dans application-test.properties).
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        STATEMENTS.add(sql.trim().toLowerCase(Locale.ROOT));
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+        STATEMENTS.clear();
+    }
+
+    // Nombre de requêtes commençant par le mot-clé donné (insert, update, delete, select)
+    public static long count(String keyword) {
+        return STATEMENTS.stream().filter(sql -> sql.startsWith(keyword)).count();
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+}
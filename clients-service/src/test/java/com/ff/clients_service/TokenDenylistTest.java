@@ -0,0 +1,95 @@
+package com.ff.clients_service;
+
+import com.ff.clients_service.entity.UserRole;
+import com.ff.clients_service.security.JwtClaims;
+import com.ff.clients_service.security.TokenDenylist;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenDenylistTest {
+
+    private static final long ONE_DAY_MS = Duration.ofDays(1).toMillis();
+
+    private final TokenDenylist denylist = new TokenDenylist(ONE_DAY_MS, 1024);
+
+    private static JwtClaims claims(UUID jti, Instant expiresAt) {
+        return new JwtClaims(jti, "user@example.com", 1L, UserRole.USER, Instant.now(), expiresAt);
+    }
+
+    @Test
+    void revokedTokens_shouldAllBeFoundAndOthersNot() {
+        Instant now = Instant.now();
+        List<JwtClaims> revoked = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            JwtClaims claims = claims(UUID.randomUUID(), now.plusSeconds(60L * i % 86_000));
+            denylist.revoke(claims.jti(), claims.expiresAt());
+            revoked.add(claims);
+        }
+
+        // Filtre saturé (1024 bits) : les faux positifs sont écartés par l'ensemble exact
+        assertTrue(revoked.stream().allMatch(denylist::isRevoked));
+        for (int i = 0; i < 2_000; i++) {
+            assertFalse(denylist.isRevoked(claims(UUID.randomUUID(), now.plusSeconds(60L * i % 86_000))));
+        }
+    }
+
+    @Test
+    void evictExpired_shouldForgetTokensOnceExpired() {
+        Instant now = Instant.now();
+        denylist.revoke(UUID.randomUUID(), now.plusSeconds(10));
+        denylist.revoke(UUID.randomUUID(), now.plusSeconds(7_200));
+
+        assertEquals(1, denylist.evictExpired(now.plusSeconds(60)));
+        assertEquals(1, denylist.size());
+    }
+
+    @Test
+    void revoke_shouldFallBackToExactSetOutsideTheWindow() {
+        Instant now = Instant.now();
+        // Tokens plus longs que jwt.expiration (un jour ici) : pas de tranche, mais bien révoqués
+        JwtClaims longLived = claims(UUID.randomUUID(), now.plus(Duration.ofDays(3)));
+        JwtClaims inWindow = claims(UUID.randomUUID(), now.plus(Duration.ofDays(3)).minus(Duration.ofDays(2)));
+        denylist.revoke(longLived.jti(), longLived.expiresAt());
+        denylist.revoke(inWindow.jti(), inWindow.expiresAt());
+
+        assertTrue(denylist.isRevoked(longLived));
+        assertTrue(denylist.isRevoked(inWindow));
+        assertFalse(denylist.isRevoked(claims(UUID.randomUUID(), longLived.expiresAt())));
+        assertEquals(2, denylist.size());
+
+        assertEquals(2, denylist.evictExpired(now.plus(Duration.ofDays(4))));
+        assertFalse(denylist.isRevoked(longLived));
+    }
+
+    @Test
+    void isRevoked_shouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Instant expiresAt = Instant.now().plusSeconds(3_600);
+        JwtClaims revoked = claims(UUID.randomUUID(), expiresAt);
+        JwtClaims valid = claims(UUID.randomUUID(), expiresAt);
+        denylist.revoke(revoked.jti(), revoked.expiresAt());
+
+        boolean result = false;
+        for (int i = 0; i < 20_000; i++) {
+            result ^= denylist.isRevoked(revoked) ^ denylist.isRevoked(valid);
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            result ^= denylist.isRevoked(revoked) ^ denylist.isRevoked(valid);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertFalse(result);
+        // Marge pour l'appel de mesure lui-même
+        assertTrue(allocated < 1_024, "octets alloués : " + allocated);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ff.jwt_verifier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clés publiques du JWKS de clients-service, gardées en mémoire. Le document est rechargé lorsqu'il
+ * est périmé ({@code ttl}) ou qu'un kid inconnu apparaît (rotation), et au plus une fois par
+ * {@code minRefreshInterval} : un flot de tokens forgés ne déclenche pas un appel réseau par requête.
+ * Une clé connue mais périmée reste servie pendant son rechargement, lancé en tâche de fond
+ * (stale-while-revalidate) : seuls un cache vide ou un kid inconnu font attendre la requête,
+ * et les requêtes concurrentes partagent alors le même appel.
+ * Si clients-service est injoignable, les clés déjà connues restent utilisées.
+ */
+public class JwksKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeySet.class);
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final URI jwksUri;
+    private final Duration ttl;
+    private final Duration minRefreshInterval;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Instant.EPOCH, Instant.EPOCH);
+    // Rechargement en cours, partagé par toutes les requêtes qui l'attendent
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    public JwksKeySet(URI jwksUri) {
+        this(jwksUri, DEFAULT_TTL, DEFAULT_MIN_REFRESH_INTERVAL);
+    }
+
+    public JwksKeySet(URI jwksUri, Duration ttl, Duration minRefreshInterval) {
+        this.jwksUri = jwksUri;
+        this.ttl = ttl;
+        this.minRefreshInterval = minRefreshInterval;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    /**
+     * Clé publique du kid donné, ou {@code null} si elle reste inconnue après un éventuel rechargement.
+     */
+    public PublicKey get(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        PublicKey key = current.keys().get(kid);
+        if (key != null) {
+            if (!Instant.now().isBefore(current.fetchedAt().plus(ttl))) {
+                refresh();
+            }
+            return key;
+        }
+        return await(refresh()).keys().get(kid);
+    }
+
+    // Lance le rechargement s'il n'y en a pas déjà un et que l'intervalle minimal est écoulé ; aucune E/S sous le verrou
+    private CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Snapshot> result;
+        synchronized (this) {
+            running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            Snapshot current = snapshot;
+            Instant now = Instant.now();
+            if (now.isBefore(current.attemptedAt().plus(minRefreshInterval))) {
+                return CompletableFuture.completedFuture(current);
+            }
+            snapshot = new Snapshot(current.keys(), current.fetchedAt(), now);
+            result = new CompletableFuture<>();
+            inFlight.set(result);
+        }
+        CompletableFuture<Map<String, PublicKey>> fetch;
+        try {
+            fetch = fetch();
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((keys, error) -> {
+            Snapshot current = snapshot;
+            if (error == null) {
+                snapshot = new Snapshot(keys, Instant.now(), current.attemptedAt());
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.warn("JWKS {} indisponible, clés en cache conservées : {}", jwksUri, cause.toString());
+            }
+            inFlight.set(null);
+            result.complete(snapshot);
+        });
+        return result;
+    }
+
+    private Snapshot await(CompletableFuture<Snapshot> refresh) {
+        try {
+            return refresh.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Rechargement du JWKS {} en échec : {}", jwksUri, e.getCause().toString());
+        }
+        return snapshot;
+    }
+
+    private CompletableFuture<Map<String, PublicKey>> fetch() {
+        HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(5)).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("HTTP " + response.statusCode()));
+            }
+            Map<String, PublicKey> keys = new HashMap<>();
+            try {
+                for (JsonNode jwk : objectMapper.readTree(response.body()).path("keys")) {
+                    if ("RSA".equals(jwk.path("kty").asText()) && jwk.hasNonNull("kid")) {
+                        keys.put(jwk.get("kid").asText(), rsaKey(jwk.path("n").asText(), jwk.path("e").asText()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return Map.copyOf(keys);
+        });
+    }
+
+    private static PublicKey rsaKey(String modulus, String exponent) {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                    new BigInteger(1, decoder.decode(modulus)), new BigInteger(1, decoder.decode(exponent))));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Clé RSA invalide dans le JWKS", e);
+        }
+    }
+
+    private record Snapshot(Map<String, PublicKey> keys, Instant fetchedAt, Instant attemptedAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.ff.jwt_verifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.net.URI;
+import java.security.Key;
+
+/**
+ * Vérifie localement (sans appel à clients-service) un token RS256 avec les clés du {@link JwksKeySet},
+ * et refuse les tokens révoqués par logout si une {@link RevocationList} est fournie.
+ * Thread-safe : une instance par service.
+ */
+public class JwtVerifier {
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
+    // Tolérance d'horloge entre services pour exp/nbf
+    private static final long ALLOWED_CLOCK_SKEW_SECONDS = 30;
+
+    private static final String REVOKED_TOKENS_PATH = "/.well-known/revoked-tokens";
+
+    private final JwtParser parser;
+    private final RevocationList revocations;
+
+    // Sans liste de révocation : un token révoqué reste accepté jusqu'à son exp
+    public JwtVerifier(JwksKeySet keySet) {
+        this(keySet, null);
+    }
+
+    public JwtVerifier(JwksKeySet keySet, RevocationList revocations) {
+        this.revocations = revocations;
+        this.parser = Jwts.parserBuilder()
+                .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keySet.get(header.getKeyId());
+                        if (key == null) {
+                            throw new MalformedJwtException("kid inconnu : " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    // Clés et révocations publiées par le même clients-service
+    public static JwtVerifier forJwks(String jwksUri) {
+        URI uri = URI.create(jwksUri);
+        return new JwtVerifier(new JwksKeySet(uri), new RevocationList(uri.resolve(REVOKED_TOKENS_PATH)));
+    }
+
+    /**
+     * @throws JwtException si la signature, l'expiration ou les claims uid/role sont invalides
+     */
+    public VerifiedJwt verify(String token) {
+        Claims body = parser.parseClaimsJws(token).getBody();
+        Number userId = body.get(USER_ID_CLAIM, Number.class);
+        String role = body.get(ROLE_CLAIM, String.class);
+        if (body.getExpiration() == null || userId == null || role == null) {
+            throw new MalformedJwtException("Claims exp/uid/role absents du token");
+        }
+        if (revocations != null && revocations.isRevoked(body.getId())) {
+            throw new JwtException("Token révoqué");
+        }
+        return new VerifiedJwt(body.getSubject(), userId.longValue(), role, body.getExpiration().toInstant());
+    }
+}
@@ -0,0 +1,50 @@
+package com.ff.jwt_verifier;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtre Spring Security des services consommateurs : authentifie la requête à partir du bearer token,
+ * avec l'autorité {@code ROLE_<role>}. Un token absent ou invalide laisse la requête anonyme.
+ * <pre>
+ * http.addFilterBefore(new JwtVerifierFilter(JwtVerifier.forJwks(jwksUri)), UsernamePasswordAuthenticationFilter.class)
+ * </pre>
+ */
+public class JwtVerifierFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtVerifier verifier;
+
+    public JwtVerifierFilter(JwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                VerifiedJwt jwt = verifier.verify(authHeader.substring(BEARER.length()));
+                var authentication = new UsernamePasswordAuthenticationToken(
+                        jwt, null, AuthorityUtils.createAuthorityList("ROLE_" + jwt.role()));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Requête anonyme : les règles d'autorisation du service décident
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
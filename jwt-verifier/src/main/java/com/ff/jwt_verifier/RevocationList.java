@@ -0,0 +1,142 @@
+package com.ff.jwt_verifier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * jti des access tokens révoqués (logout), recopiés depuis le flux {@code /.well-known/revoked-tokens}
+ * de clients-service. Le flux est relu au plus une fois par {@code pollInterval}, en tâche de fond : seul le
+ * premier chargement fait attendre la requête. Chaque lecture ne demande que les révocations enregistrées
+ * depuis la précédente (avec un recouvrement), et les entrées sont oubliées à l'expiration de leur token.
+ * Si clients-service est injoignable, la liste déjà connue reste utilisée.
+ */
+public class RevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationList.class);
+
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(5);
+    // Révocations validées pendant la lecture précédente : relues au passage suivant
+    private static final long OVERLAP_MS = 5_000;
+
+    private final URI feedUri;
+    private final Duration pollInterval;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // jti -> exp (ms epoch)
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+    // Date serveur de la dernière lecture réussie
+    private volatile long until;
+    private volatile Instant attemptedAt = Instant.EPOCH;
+    private volatile boolean loaded;
+
+    public RevocationList(URI feedUri) {
+        this(feedUri, DEFAULT_POLL_INTERVAL);
+    }
+
+    public RevocationList(URI feedUri, Duration pollInterval) {
+        this.feedUri = feedUri;
+        this.pollInterval = pollInterval;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    public boolean isRevoked(String jti) {
+        CompletableFuture<Void> refresh = refresh();
+        if (!loaded) {
+            await(refresh);
+        }
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    // Même principe que JwksKeySet : un seul appel en cours, aucune E/S sous le verrou
+    private CompletableFuture<Void> refresh() {
+        CompletableFuture<Void> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Void> result;
+        synchronized (this) {
+            running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            Instant now = Instant.now();
+            if (now.isBefore(attemptedAt.plus(pollInterval))) {
+                return CompletableFuture.completedFuture(null);
+            }
+            attemptedAt = now;
+            result = new CompletableFuture<>();
+            inFlight.set(result);
+        }
+        CompletableFuture<JsonNode> fetch;
+        try {
+            fetch = fetch(Math.max(0, until - OVERLAP_MS));
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((feed, error) -> {
+            if (error == null) {
+                apply(feed);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.warn("Flux de révocation {} indisponible, liste en cache conservée : {}", feedUri, cause.toString());
+            }
+            loaded = true;
+            inFlight.set(null);
+            result.complete(null);
+        });
+        return result;
+    }
+
+    private void apply(JsonNode feed) {
+        for (JsonNode entry : feed.path("revoked")) {
+            if (entry.hasNonNull("jti")) {
+                revoked.put(entry.get("jti").asText(), entry.path("expiresAt").asLong());
+            }
+        }
+        long nowMs = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAtMs -> expiresAtMs <= nowMs);
+        until = feed.path("until").asLong(until);
+    }
+
+    private void await(CompletableFuture<Void> refresh) {
+        try {
+            refresh.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Chargement du flux de révocation {} en échec : {}", feedUri, e.getCause().toString());
+        }
+    }
+
+    private CompletableFuture<JsonNode> fetch(long since) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(feedUri + "?since=" + since))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("HTTP " + response.statusCode()));
+            }
+            try {
+                return objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+}
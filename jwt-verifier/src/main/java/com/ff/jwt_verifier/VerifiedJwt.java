@@ -0,0 +1,15 @@
+package com.ff.jwt_verifier;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Identité portée par un token vérifié (claims sub, uid, role, exp émis par clients-service).
+ */
+public record VerifiedJwt(String email, Long userId, String role, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
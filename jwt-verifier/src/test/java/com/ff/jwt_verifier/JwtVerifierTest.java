@@ -0,0 +1,219 @@
+package com.ff.jwt_verifier;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private final Map<String, KeyPair> published = new LinkedHashMap<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    // jti -> exp (ms), publiés comme le flux /.well-known/revoked-tokens de clients-service
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    // Non null : le serveur JWKS attend son ouverture avant de répondre (clients-service lent)
+    private volatile CountDownLatch gate;
+    private HttpServer server;
+    private URI jwksUri;
+
+    @BeforeEach
+    void startJwksServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = jwks().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/.well-known/revoked-tokens", exchange -> {
+            StringJoiner entries = new StringJoiner(",", "{\"until\":" + System.currentTimeMillis() + ",\"revoked\":[", "]}");
+            revoked.forEach((jti, exp) -> entries.add("{\"jti\":\"" + jti + "\",\"expiresAt\":" + exp + "}"));
+            byte[] body = entries.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        jwksUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+    }
+
+    @AfterEach
+    void stopJwksServer() {
+        if (gate != null) {
+            gate.countDown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void verify_shouldFetchKeysOnceAndAuthenticateLocally() throws Exception {
+        KeyPair key = publish("k1");
+        JwtVerifier verifier = new JwtVerifier(new JwksKeySet(jwksUri));
+
+        for (int i = 0; i < 5; i++) {
+            VerifiedJwt jwt = verifier.verify(sign("k1", key));
+            assertEquals(7L, jwt.userId());
+            assertEquals("ADMIN", jwt.role());
+            assertEquals("user@example.com", jwt.getName());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void verify_shouldReloadKeysWhenANewKidAppears() throws Exception {
+        KeyPair oldKey = publish("k1");
+        JwtVerifier verifier = new JwtVerifier(new JwksKeySet(jwksUri, Duration.ofMinutes(5), Duration.ZERO));
+        verifier.verify(sign("k1", oldKey));
+
+        KeyPair newKey = publish("k2");
+        assertEquals("user@example.com", verifier.verify(sign("k2", newKey)).email());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void verify_shouldRejectUnknownKidWithoutRefetchingOnEveryRequest() throws Exception {
+        publish("k1");
+        KeyPair forged = generate();
+        JwtVerifier verifier = new JwtVerifier(new JwksKeySet(jwksUri, Duration.ofMinutes(5), Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(JwtException.class, () -> verifier.verify(sign("forged", forged)));
+        }
+        assertEquals(1, fetches.get());
+        // kid connu mais signature d'une autre clé
+        assertThrows(JwtException.class, () -> verifier.verify(sign("k1", forged)));
+    }
+
+    @Test
+    void verify_shouldServeStaleKeyWhileReloadingInBackground() throws Exception {
+        KeyPair key = publish("k1");
+        JwtVerifier verifier = new JwtVerifier(new JwksKeySet(jwksUri, Duration.ZERO, Duration.ZERO));
+        verifier.verify(sign("k1", key));
+
+        gate = new CountDownLatch(1);
+        // Clé périmée : servie sans attendre le JWKS, dont le rechargement reste bloqué
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(7L, verifier.verify(sign("k1", key)).userId());
+            }
+        });
+        // Un seul rechargement en tâche de fond pour les cinq requêtes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (fetches.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, fetches.get());
+
+        gate.countDown();
+    }
+
+    @Test
+    void verify_shouldRejectTokensRevokedByLogout() throws Exception {
+        KeyPair key = publish("k1");
+        String alreadyRevoked = UUID.randomUUID().toString();
+        String loggedOutLater = UUID.randomUUID().toString();
+        revoked.put(alreadyRevoked, System.currentTimeMillis() + 60_000);
+        RevocationList revocations = new RevocationList(jwksUri.resolve("/.well-known/revoked-tokens"), Duration.ZERO);
+        JwtVerifier verifier = new JwtVerifier(new JwksKeySet(jwksUri), revocations);
+
+        // Premier chargement attendu : aucune fenêtre où un token déjà révoqué passerait
+        assertThrows(JwtException.class, () -> verifier.verify(sign("k1", key, alreadyRevoked)));
+        assertEquals(7L, verifier.verify(sign("k1", key, loggedOutLater)).userId());
+
+        // Logout ensuite : pris en compte au rechargement suivant, lancé en tâche de fond
+        revoked.put(loggedOutLater, System.currentTimeMillis() + 60_000);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!revocations.isRevoked(loggedOutLater) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThrows(JwtException.class, () -> verifier.verify(sign("k1", key, loggedOutLater)));
+    }
+
+    private KeyPair publish(String kid) throws Exception {
+        KeyPair pair = generate();
+        published.put(kid, pair);
+        return pair;
+    }
+
+    private static KeyPair generate() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String sign(String kid, KeyPair key) {
+        return sign(kid, key, UUID.randomUUID().toString());
+    }
+
+    private static String sign(String kid, KeyPair key, String jti) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, kid)
+                .setId(jti)
+                .setSubject("user@example.com")
+                .claim("uid", 7L)
+                .claim("role", "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    // Même format que le JWKS publié par clients-service
+    private String jwks() {
+        StringJoiner joiner = new StringJoiner(",", "{\"keys\":[", "]}");
+        published.forEach((kid, pair) -> {
+            RSAPublicKey key = (RSAPublicKey) pair.getPublic();
+            joiner.add("{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + kid
+                    + "\",\"n\":\"" + base64Url(key.getModulus()) + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}");
+        });
+        return joiner.toString();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
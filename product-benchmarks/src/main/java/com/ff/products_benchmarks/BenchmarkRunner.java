@@ -0,0 +1,27 @@
+package com.ff.products_benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée de target/benchmarks.jar. Accepte les options JMH habituelles
+ * (ex. {@code java -jar target/benchmarks.jar ProductSerialization -p catalogSize=500 -rf json}) et active
+ * toujours le profileur gc : gc.alloc.rate.norm (octets alloués par opération) est le chiffre à comparer
+ * entre deux versions du chemin de lecture.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
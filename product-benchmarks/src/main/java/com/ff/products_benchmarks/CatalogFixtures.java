@@ -0,0 +1,70 @@
+package com.ff.products_benchmarks;
+
+import com.ff.products_service.dto.UpdateProductWithImagesRequest;
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Données de catalogue déterministes, proches de la production : noms et descriptions de taille réaliste,
+ * une image principale et des images secondaires par produit.
+ */
+final class CatalogFixtures {
+
+    private static final String DESCRIPTION = "Structure en acier, assise rembourrée en mousse haute densité, "
+            + "dossier inclinable et accoudoirs réglables. Garantie deux ans, livraison en kit.";
+
+    private CatalogFixtures() {
+    }
+
+    static List<Product> products(int count, int imagesPerProduct) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i + 1L, imagesPerProduct));
+        }
+        return products;
+    }
+
+    static Product product(long id, int imagesPerProduct) {
+        Product product = Product.builder()
+                .id(id)
+                .name("Chaise ergonomique modèle " + id)
+                .description(DESCRIPTION)
+                .price(BigDecimal.valueOf(4990 + id % 1000, 2))
+                .stock((int) (id % 120))
+                .version(id % 7)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(id))
+                .images(new ArrayList<>(imagesPerProduct))
+                .build();
+        for (int j = 0; j < imagesPerProduct; j++) {
+            product.getImages().add(Image.builder()
+                    .id(id * 100 + j)
+                    .url("https://cdn.example.com/products/" + id + "/" + j + ".jpg")
+                    .title("Vue " + j + " du produit " + id)
+                    .main(j == 0)
+                    .version(0L)
+                    .product(product)
+                    .build());
+        }
+        return product;
+    }
+
+    // Galerie à modifier : l'image principale en tête, quelques suppressions parmi les images secondaires
+    static List<UpdateProductWithImagesRequest.ImageRequest> imageRequests(int count) {
+        List<UpdateProductWithImagesRequest.ImageRequest> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UpdateProductWithImagesRequest.ImageRequest image = new UpdateProductWithImagesRequest.ImageRequest();
+            image.setId(i + 1L);
+            image.setUrl("https://cdn.example.com/products/1/" + i + ".jpg");
+            image.setTitle("Vue " + i);
+            image.setMain(i == 0);
+            image.setToDelete(i > 0 && i % 4 == 0);
+            images.add(image);
+        }
+        return images;
+    }
+}
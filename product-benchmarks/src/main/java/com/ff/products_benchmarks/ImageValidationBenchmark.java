@@ -0,0 +1,43 @@
+package com.ff.products_benchmarks;
+
+import com.ff.products_service.dto.UpdateProductWithImagesRequest;
+import com.ff.products_service.utils.ImageValidationUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validations appliquées à chaque création / modification de produit, sur des galeries valides.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageValidationBenchmark {
+
+    @Param({"5", "50"})
+    private int images;
+
+    private List<UpdateProductWithImagesRequest.ImageRequest> requests;
+
+    @Setup
+    public void setUp() {
+        requests = CatalogFixtures.imageRequests(images);
+    }
+
+    @Benchmark
+    public void validateSingleMainImage(Blackhole blackhole) {
+        ImageValidationUtils.validateSingleMainImage(requests);
+        blackhole.consume(requests);
+    }
+
+    @Benchmark
+    public void validateNoMainImageBeingDeleted(Blackhole blackhole) {
+        ImageValidationUtils.validateNoMainImageBeingDeleted(requests);
+        blackhole.consume(requests);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ff.products_benchmarks;
+
+import com.ff.products_service.dto.ProductResponseDTO;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.utils.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion Product -> ProductResponseDTO (MapStruct) pour une page de produits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    @Param({"1", "5", "20"})
+    private int imagesPerProduct;
+
+    private final ProductMapper mapper = ProductMapper.INSTANCE;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = CatalogFixtures.products(pageSize, imagesPerProduct);
+    }
+
+    @Benchmark
+    public ProductResponseDTO[] toProductResponseDTO() {
+        ProductResponseDTO[] dtos = new ProductResponseDTO[products.size()];
+        for (int i = 0; i < dtos.length; i++) {
+            dtos[i] = mapper.toProductResponseDTO(products.get(i));
+        }
+        return dtos;
+    }
+}
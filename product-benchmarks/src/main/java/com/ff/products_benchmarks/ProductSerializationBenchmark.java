@@ -0,0 +1,72 @@
+package com.ff.products_benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.utils.ApiRes;
+import com.ff.products_service.utils.ResponseBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson de ApiRes<List<Product>> (réponse de GET /api/products) avec la configuration
+ * ObjectMapper de Spring Boot, vers un flux qui ignore les octets (seul le coût de l'écriture est mesuré).
+ * Tailles : page par défaut (50), page maximale (500), catalogue complet (5000).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSerializationBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int catalogSize;
+
+    @Param({"3"})
+    private int imagesPerProduct;
+
+    private ObjectWriter writer;
+    private ApiRes<List<Product>> response;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<ApiRes<List<Product>>>() {
+        });
+        response = ResponseBuilder.success("Products found", CatalogFixtures.products(catalogSize, imagesPerProduct));
+        out = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long serializeApiResponse() throws IOException {
+        out.count = 0;
+        writer.writeValue(out, response);
+        return out.count;
+    }
+
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // writeValue ferme le flux : rien à libérer
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ff.products_service.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache mémoire (Caffeine, éviction W-TinyLFU) devant ProductRepository.
+ * Noms, taille et TTL : spring.cache.* dans application.properties.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_STOCK = "productStock";
+
+    /**
+     * Le cache ne sert que les lectures hors transaction d'écriture : les endpoints de modification
+     * récupèrent ainsi une entité gérée et ne modifient jamais l'instance partagée du cache.
+     */
+    public static final String OUTSIDE_WRITE_TRANSACTION =
+            "!T(org.springframework.transaction.support.TransactionSynchronizationManager).isActualTransactionActive()"
+                    + " or T(org.springframework.transaction.support.TransactionSynchronizationManager).isCurrentTransactionReadOnly()";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        // Les évictions faites dans une transaction ne sont appliquées qu'après le commit
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
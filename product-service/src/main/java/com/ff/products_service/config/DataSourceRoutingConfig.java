@@ -0,0 +1,59 @@
+package com.ff.products_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routage lecture/écriture, actif dès qu'un réplica est configuré (product.datasource.replicas[0].url) ;
+ * sinon la DataSource auto-configurée de Spring Boot est utilisée telle quelle.
+ * Seules les transactions {@code @Transactional(readOnly = true)} vont sur les réplicas : les écritures, et les
+ * lectures qui doivent voir les écritures précédentes (hors transaction ou dans une transaction d'écriture),
+ * restent sur le primaire.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.datasource.replicas[0]", name = "url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(DataSourceProperties primaryProperties,
+                                                                     ReplicaDataSourceProperties replicaProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("products-primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName() != null ? replica.getDriverClassName() : primaryProperties.getDriverClassName())
+                    .build();
+            dataSource.setPoolName("products-replica-" + replicas.size());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            // Les connexions des réplicas ne servent qu'aux lectures
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReadReplicaRoutingDataSource(primary, replicas, replicaProperties.getReplicaRetryMs());
+    }
+
+    // La connexion n'est réellement obtenue qu'à la première requête, une fois le caractère readOnly de la transaction connu
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ff.products_service.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+public class OutboxConfig {
+
+    // Déclaré sur le broker au premier envoi (RabbitAdmin)
+    @Bean
+    public TopicExchange productEventsExchange(@Value("${product.outbox.exchange:product.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    // Relais périodique de l'outbox, désactivable (tests, instance sans broker)
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "product.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    static class RelaySchedulingConfig {
+    }
+}
@@ -0,0 +1,192 @@
+package com.ff.products_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.service.ProductJsonSnapshotCache;
+import com.ff.products_service.utils.ApiRes;
+import com.ff.products_service.utils.ConditionalRequestUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Écrit les réponses ApiRes&lt;Product&gt; à partir des instantanés de ProductJsonSnapshotCache : seule l'enveloppe
+ * (message, status, timestamp) est sérialisée à chaque requête, le produit est recopié tel quel depuis la mémoire hors tas.
+ * Si le client accepte gzip, la réponse est un flux gzip dont la partie produit est elle aussi pré-compressée ;
+ * l'enveloppe est ajoutée en blocs deflate non compressés, et l'ETag reçoit le suffixe "-gz" de la représentation gzip.
+ */
+public class ProductJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] SUFFIX = {'}'};
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ObjectMapper objectMapper;
+    private final ProductJsonSnapshotCache snapshotCache;
+
+    public ProductJsonHttpMessageConverter(ObjectMapper objectMapper, ProductJsonSnapshotCache snapshotCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.snapshotCache = snapshotCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiRes.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    // Seul le type générique permet de reconnaître ApiRes<Product> : sans lui, Jackson reste en charge
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == ApiRes.class
+                && parameterized.getActualTypeArguments()[0] == Product.class
+                && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lecture non supportée", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lecture non supportée", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        ApiRes<?> response = (ApiRes<?>) body;
+        ProductJsonSnapshotCache.Snapshot snapshot = response.getData() instanceof Product product
+                ? snapshotCache.getOrRender(product)
+                : null;
+        if (snapshot == null) {
+            objectMapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), body);
+            return;
+        }
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (snapshotCache.isGzipEnabled() && !headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        byte[] prefix = envelopePrefix(response);
+        if (snapshot.deflated() != null && snapshotCache.servesGzip(acceptEncoding())) {
+            writeGzip(prefix, snapshot, outputMessage);
+            return;
+        }
+        headers.setContentLength(prefix.length + snapshot.json().remaining() + SUFFIX.length);
+        OutputStream out = outputMessage.getBody();
+        out.write(prefix);
+        write(out, snapshot.json());
+        out.write(SUFFIX);
+    }
+
+    // Champs dans l'ordre de ApiRes, "data" en dernier pour que le produit puisse être recopié à la suite
+    private byte[] envelopePrefix(ApiRes<?> response) throws IOException {
+        String prefix = "{\"message\":" + objectMapper.writeValueAsString(response.getMessage())
+                + ",\"status\":" + response.getStatus()
+                + ",\"timestamp\":" + objectMapper.writeValueAsString(response.getTimestamp())
+                + ",\"data\":";
+        return prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writeGzip(byte[] prefix, ProductJsonSnapshotCache.Snapshot snapshot, HttpOutputMessage outputMessage) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+        crc.update(snapshot.json().duplicate());
+        crc.update(SUFFIX);
+        long size = prefix.length + snapshot.json().remaining() + SUFFIX.length;
+
+        byte[] head = concat(GZIP_HEADER, storedBlock(prefix, false));
+        byte[] tail = concat(storedBlock(SUFFIX, true), littleEndian((int) crc.getValue()), littleEndian((int) size));
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        if (headers.getETag() != null) {
+            headers.setETag(ConditionalRequestUtils.gzipETag(headers.getETag()));
+        }
+        headers.setContentLength(head.length + snapshot.deflated().remaining() + tail.length);
+        OutputStream out = outputMessage.getBody();
+        out.write(head);
+        write(out, snapshot.deflated());
+        out.write(tail);
+    }
+
+    @Nullable
+    private static String acceptEncoding() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        return attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    // Bloc deflate "stored" (RFC 1951, 3.2.4) : commence sur une frontière d'octet, comme les blocs pré-compressés
+    private static byte[] storedBlock(byte[] data, boolean last) {
+        byte[] block = new byte[5 + data.length];
+        block[0] = (byte) (last ? 1 : 0);
+        block[1] = (byte) data.length;
+        block[2] = (byte) (data.length >>> 8);
+        block[3] = (byte) ~data.length;
+        block[4] = (byte) (~data.length >>> 8);
+        System.arraycopy(data, 0, block, 5, data.length);
+        return block;
+    }
+
+    private static byte[] littleEndian(int value) {
+        return new byte[]{(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)};
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    private static void write(OutputStream out, ByteBuffer buffer) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        byte[] chunk = new byte[Math.min(CHUNK_SIZE, source.remaining())];
+        while (source.hasRemaining()) {
+            int length = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+}
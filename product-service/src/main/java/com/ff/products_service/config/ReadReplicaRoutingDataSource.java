@@ -0,0 +1,108 @@
+package com.ff.products_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Envoie les transactions {@code readOnly} vers les réplicas (round-robin), tout le reste vers le primaire.
+ * Un réplica injoignable est écarté pendant {@code retryDelayMillis} et la lecture se fait sur le primaire.
+ * <p>
+ * Doit être enveloppé dans un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} :
+ * le caractère readOnly de la transaction n'est connu qu'après l'ouverture de la transaction JPA.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryDelayMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long retryDelayMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryDelayMillis = retryDelayMillis;
+        this.unavailableUntil = new AtomicLongArray(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Index du prochain réplica disponible, ou PRIMARY hors transaction readOnly / si aucun réplica n'est disponible
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = Math.floorMod(next.getAndIncrement(), replicas.size());
+            if (unavailableUntil.get(index) <= now) {
+                return index;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() instanceof Integer index) {
+            try {
+                return replicas.get(index).getConnection();
+            } catch (SQLException | RuntimeException e) {
+                markUnavailable(index, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() instanceof Integer index) {
+            try {
+                return replicas.get(index).getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                markUnavailable(index, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private void markUnavailable(int index, Exception cause) {
+        unavailableUntil.set(index, System.currentTimeMillis() + retryDelayMillis);
+        log.warn("Réplica {} injoignable, lectures sur le primaire pendant {} ms : {}", index, retryDelayMillis, cause.getMessage());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            close(replica);
+        }
+        close(primary);
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ff.products_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas en lecture de la base produits ({@code product.datasource.*}). Le primaire reste spring.datasource.
+ */
+@Data
+@ConfigurationProperties("product.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Durée pendant laquelle un réplica injoignable est écarté (les lectures passent par le primaire)
+    private long replicaRetryMs = 30000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
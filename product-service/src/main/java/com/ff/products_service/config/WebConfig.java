@@ -0,0 +1,27 @@
+package com.ff.products_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.service.ProductJsonSnapshotCache;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final ProductJsonSnapshotCache productJsonSnapshotCache;
+
+    public WebConfig(ObjectMapper objectMapper, ProductJsonSnapshotCache productJsonSnapshotCache) {
+        this.objectMapper = objectMapper;
+        this.productJsonSnapshotCache = productJsonSnapshotCache;
+    }
+
+    // Avant Jackson : ne prend en charge que les réponses ApiRes<Product>
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ProductJsonHttpMessageConverter(objectMapper, productJsonSnapshotCache));
+    }
+}
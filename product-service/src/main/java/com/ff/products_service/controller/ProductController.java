@@ -1,9 +1,14 @@
 package com.ff.products_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.ff.products_service.dto.*;
 import com.ff.products_service.entity.Image;
 import com.ff.products_service.entity.Product;
 import com.ff.products_service.service.ImageService;
+import com.ff.products_service.service.ProductImportService;
+import com.ff.products_service.service.ProductJsonSnapshotCache;
+import com.ff.products_service.service.ProductSearchIndex;
 import com.ff.products_service.service.ProductService;
 import com.ff.products_service.utils.*;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,11 +17,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -28,6 +45,10 @@ public class ProductController {
     private final ProductService productService;
     private final ImageService imageService;
     private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductImportService productImportService;
+    private final ProductJsonSnapshotCache productJsonSnapshotCache;
 
     @GetMapping
     @Operation(summary = "Lister tous les produits", description = "Récupère une liste de tous les produits disponibles dans le système.")
@@ -39,15 +60,163 @@ public class ProductController {
         return ResponseEntity.ok(ResponseBuilder.success("Products found", products));
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Lister les produits page par page", description = "Récupère une page de produits triés par id. Renvoyer le curseur 'nextCursor' pour obtenir la page suivante.")
+    public ResponseEntity<ApiRes<ProductPageResponse>> getProductsPage(
+            @Parameter(description = "Curseur opaque renvoyé par la page précédente. Absent pour la première page.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de produits par page (borné par la configuration)", example = "50") @RequestParam(required = false) Integer size) {
+
+        ProductPageResponse page = productService.findPage(cursor, size);
+        return ResponseEntity.ok(ResponseBuilder.success("Products found", page));
+    }
+
+    @GetMapping(value = "/page", params = "fields")
+    @Operation(summary = "Lister les produits page par page, champs choisis", description = "Comme /page, mais chaque produit ne contient que les champs demandés : seules ces colonnes sont lues, et les images uniquement si 'images' est demandé.")
+    public ResponseEntity<ApiRes<ProductFieldsPageResponse>> getProductsPageFields(
+            @Parameter(description = "Champs à renvoyer parmi id, name, description, price, stock, version, updatedAt, images (l'id est toujours renvoyé)", example = "name,price", required = true) @RequestParam String fields,
+            @Parameter(description = "Curseur opaque renvoyé par la page précédente. Absent pour la première page.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de produits par page (borné par la configuration)", example = "50") @RequestParam(required = false) Integer size) {
+
+        ProductFieldsPageResponse page = productService.findFieldsPage(cursor, size, ProductFieldSet.parse(fields));
+        return ResponseEntity.ok(ResponseBuilder.success("Products found", page));
+    }
+
+    @GetMapping("/cards")
+    @Operation(summary = "Lister les vignettes produit page par page", description = "Récupère pour chaque produit l'id, le nom, le prix, le stock et l'URL de l'image principale, triés par id. Renvoyer le curseur 'nextCursor' pour obtenir la page suivante.")
+    public ResponseEntity<ApiRes<ProductCardPageResponse>> getProductCards(
+            @Parameter(description = "Curseur opaque renvoyé par la page précédente. Absent pour la première page.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de produits par page (borné par la configuration)", example = "50") @RequestParam(required = false) Integer size) {
+
+        ProductCardPageResponse page = productService.findCardPage(cursor, size);
+        return ResponseEntity.ok(ResponseBuilder.success("Products found", page));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Filtrer et trier les produits", description = "Filtre par fourchette de prix, disponibilité et début du nom, puis trie par prix, nom ou id. Pagination par curseur comme /page : renvoyer 'nextCursor' avec les mêmes filtres et le même tri.")
+    public ResponseEntity<ApiRes<ProductPageResponse>> filterProducts(
+            @Parameter(description = "Prix minimum (inclus)", example = "10.00") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximum (inclus)", example = "250.00") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Uniquement les produits en stock", example = "true") @RequestParam(defaultValue = "false") boolean inStock,
+            @Parameter(description = "Début du nom du produit", example = "Chaise") @RequestParam(required = false) String namePrefix,
+            @Parameter(description = "Tri : id, price ou name", example = "price") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Sens du tri : asc ou desc", example = "asc") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Curseur opaque renvoyé par la page précédente. Absent pour la première page.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de produits par page (borné par la configuration)", example = "50") @RequestParam(required = false) Integer size) {
+
+        ProductFilter filter = ProductFilter.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .namePrefix(namePrefix)
+                .sort(ProductFilter.SortField.from(sort))
+                .direction(Sort.Direction.fromOptionalString(direction)
+                        .orElseThrow(() -> new IllegalArgumentException("Sens de tri inconnu : " + direction + " (asc ou desc).")))
+                .build();
+        ProductPageResponse page = productService.findFiltered(filter, cursor, size);
+        return ResponseEntity.ok(ResponseBuilder.success("Products found", page));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exporter tout le catalogue en flux", description = "Écrit les produits au fil de leur lecture en base (un objet JSON par ligne), sans charger le catalogue complet en mémoire.")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @Parameter(description = "Nombre de produits lus en base par requête", example = "500") @RequestParam(required = false) Integer chunkSize) {
+
+        int size = productService.resolvePageSize(chunkSize);
+        StreamingResponseBody body = out -> writeCatalog(out, size);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeCatalog(OutputStream out, int chunkSize) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(Product.class).withRootValueSeparator("\n").writeValues(out)) {
+            Long afterId = null;
+            List<Product> chunk;
+            do {
+                chunk = productService.findPageAfter(afterId, chunkSize);
+                for (Product product : chunk) {
+                    writer.write(product);
+                }
+                out.flush();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == chunkSize);
+        }
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Rechercher des produits", description = "Recherche plein texte sur le nom et la description (insensible aux accents, par préfixe), résultats classés par pertinence.")
+    public ResponseEntity<ApiRes<List<ProductSearchHit>>> searchProducts(
+            @Parameter(description = "Texte recherché", example = "chaise ergo", required = true) @RequestParam String q,
+            @Parameter(description = "Nombre maximum de résultats", example = "20") @RequestParam(required = false) Integer limit) {
+
+        if (q.isBlank()) {
+            throw new IllegalArgumentException("Le texte recherché est obligatoire.");
+        }
+        List<ProductSearchHit> hits = productSearchIndex.search(q, productService.resolvePageSize(limit));
+        return ResponseEntity.ok(ResponseBuilder.success("Products found", hits));
+    }
+
     @GetMapping("/liste/{id}")
     @Operation(summary = "Récupérer un produit par ID", description = "Récupère les détails d'un produit spécifique en utilisant son identifiant unique.")
-    public ResponseEntity<ApiRes<Product>> getProductById(@Parameter(name = "id", description = "ID unique du produit à récupérer", example = "1", required = true ) @PathVariable Long id) {
+    public ResponseEntity<ApiRes<Product>> getProductById(@Parameter(name = "id", description = "ID unique du produit à récupérer", example = "1", required = true ) @PathVariable Long id, WebRequest request) {
+
+        // Représentations identité et gzip : un ETag fort chacune, et Vary pour les caches intermédiaires
+        boolean gzip = productJsonSnapshotCache.servesGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String[] vary = productJsonSnapshotCache.isGzipEnabled() ? new String[]{HttpHeaders.ACCEPT_ENCODING} : new String[0];
+
+        // Requête conditionnelle : seule la version est lue pour répondre 304
+        if (ConditionalRequestUtils.isConditional(request)) {
+            ProductVersionView current = productService.findVersion(id);
+            if (current == null) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            if (request.checkNotModified(productETag(id, current.getVersion(), gzip), ConditionalRequestUtils.lastModified(current.getUpdatedAt()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(vary).build();
+            }
+        }
 
         Product product = productService.findById(id);
         if (product == null) {
             throw new ResourceNotFoundException("Product not found");
         }
-        return ResponseEntity.ok(ResponseBuilder.success("Product found", product));
+        return ResponseEntity.ok()
+                .eTag(productETag(id, product.getVersion(), gzip))
+                .varyBy(vary)
+                .lastModified(ConditionalRequestUtils.lastModified(product.getUpdatedAt()))
+                .body(ResponseBuilder.success("Product found", product));
+    }
+
+    private static String productETag(Long id, Long version, boolean gzip) {
+        String eTag = ConditionalRequestUtils.productETag(id, version);
+        return gzip ? ConditionalRequestUtils.gzipETag(eTag) : eTag;
+    }
+
+    @GetMapping(value = "/liste/{id}", params = "fields")
+    @Operation(summary = "Récupérer les champs choisis d'un produit", description = "Comme /liste/{id}, mais ne lit et ne renvoie que les champs demandés. L'ETag dépend de la version et des champs.")
+    public ResponseEntity<ApiRes<Map<String, Object>>> getProductFieldsById(
+            @Parameter(name = "id", description = "ID unique du produit à récupérer", example = "1", required = true) @PathVariable Long id,
+            @Parameter(description = "Champs à renvoyer parmi id, name, description, price, stock, version, updatedAt, images (l'id est toujours renvoyé)", example = "name,price", required = true) @RequestParam String fields,
+            WebRequest request) {
+
+        ProductFieldSet fieldSet = ProductFieldSet.parse(fields);
+        if (ConditionalRequestUtils.isConditional(request)) {
+            ProductVersionView current = productService.findVersion(id);
+            if (current == null) {
+                throw new ResourceNotFoundException("Product not found");
+            }
+            if (request.checkNotModified(ConditionalRequestUtils.productETag(id, current.getVersion(), fieldSet.variant()), ConditionalRequestUtils.lastModified(current.getUpdatedAt()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+
+        ProductFieldsView product = productService.findFieldsById(id, fieldSet);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        return ResponseEntity.ok()
+                .eTag(ConditionalRequestUtils.productETag(id, product.version(), fieldSet.variant()))
+                .lastModified(ConditionalRequestUtils.lastModified(product.updatedAt()))
+                .body(ResponseBuilder.success("Product found", product.fields()));
     }
 
     @PostMapping
@@ -68,20 +237,20 @@ public class ProductController {
 
         product = productService.create(product); // save initial product
 
-        // 2. Ajouter les images
+        // 2. Ajouter les images (en un seul batch)
+        List<Image> images = new ArrayList<>();
         if (request.getImages() != null) {
             for (ProductWithImagesRequest.ImageRequest imageReq : request.getImages()) {
-                Image image = Image.builder()
+                images.add(Image.builder()
                         .url(imageReq.getUrl())
                         .title(imageReq.getTitle())
                         .main(imageReq.getMain())
                         .product(product)
-                        .build();
-                imageService.createImage(image);
+                        .build());
             }
         }
-        List<Image> images = imageService.getImagesByProductId(product.getId());
-        product.setImages(images);
+        // Les images viennent d'être enregistrées : inutile de les relire en base
+        product.setImages(imageService.createImages(images));
 
         ProductResponseDTO productDTO = productMapper.toProductResponseDTO(product);
         return ResponseEntity
@@ -89,94 +258,109 @@ public class ProductController {
                 .body(ResponseBuilder.created("Product has been successfully save.", productDTO));
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Importer des produits en masse", description = "Lit le flux ligne par ligne et enregistre les produits valides par lots. "
+            + "NDJSON : un objet au format de la création de produit par ligne. CSV : en-tête name,description,price,stock,images, "
+            + "la colonne images contenant des entrées url|titre séparées par ';' (la première est l'image principale). "
+            + "Les lignes invalides sont rejetées individuellement et listées dans le rapport.")
+    public ResponseEntity<ApiRes<ImportReport>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(description = "Nombre de produits enregistrés par transaction (borné par la configuration)", example = "200") @RequestParam(required = false) Integer batchSize,
+            InputStream body) throws IOException {
+
+        ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        ImportReport report = productImportService.importProducts(body, format, batchSize);
+        return ResponseEntity.ok(ResponseBuilder.success("Import completed", report));
+    }
+
     @PutMapping("/modif/{id}")
-    @Transactional
     @Operation(summary = "Modifier un produit par ID et ses images", description = "Met à jour les informations d'un produit existant et gère ses images (ajout, modification, suppression).")
     public ResponseEntity<ApiRes<Product>> updateProduct(@Parameter(description = "ID unique du produit à modifier", example = "1") @PathVariable Long id, @Valid @RequestBody UpdateProductWithImagesRequest request) {
-    Product product = productService.findById(id);
-    if (product == null) {
-        throw new ResourceNotFoundException("Product not found with id " + id);
-    }
 
         // 1. Valider qu’il y a exactement une image principale
         ImageValidationUtils.validateSingleMainImage(request.getImages());
         // 2. Vérifier qu’on ne supprime pas une image principale
         ImageValidationUtils.validateNoMainImageBeingDeleted(request.getImages());
 
-    // Mise à jour des champs principaux
-    product.setName(request.getName());
-    product.setDescription(request.getDescription());
-    product.setPrice(request.getPrice());
-    product.setStock(request.getStock());
-    productService.create(product);
-
-    // Gestion des images
-    for (UpdateProductWithImagesRequest.ImageRequest imageReq : request.getImages()) {
-        Long imageId = imageReq.getId();
-
-        if (imageReq.getToDelete()) {            if (imageId != null) {
-                Image existingImage = imageService.findImageById(imageId);
-                if (existingImage == null) {
-                    throw new ResourceNotFoundException("Image not found with id " + imageId);
-                }
-                imageService.deleteImageById(imageId);
-            }
-            continue;
+        // 3. Mettre à jour le produit et réconcilier ses images ; le produit renvoyé est déjà à jour, sans relecture
+        // 4. Écriture concurrente détectée par @Version au flush, dans la transaction du service : 409 avec la version courante
+        Product updatedProduct;
+        try {
+            updatedProduct = productService.updateWithImages(id, request);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException(id, productService.findCurrentVersion(id));
         }
-
-        if (imageId == null) {
-            Image newImage = Image.builder()
-                    .url(imageReq.getUrl())
-                    .title(imageReq.getTitle())
-                    .main(imageReq.getMain())
-                    .product(product)
-                    .build();
-            imageService.createImage(newImage);
-        } else {
-            Image existingImage = imageService.findImageById(imageId);
-            if (existingImage == null) {
-                throw new ResourceNotFoundException("Image not found with id " + imageId);
-            }
-                existingImage.setUrl(imageReq.getUrl());
-                existingImage.setTitle(imageReq.getTitle());
-                existingImage.setMain(imageReq.getMain());
-                imageService.createImage(existingImage);
-        }
-    }
-
-        Product updatedProduct = productService.findById(id);
         return ResponseEntity.status(HttpStatus.OK).body(ResponseBuilder.success("Product has been successfully modified", updatedProduct));
-}
+    }
 
     @DeleteMapping("/{id}")
     @Transactional
     @Operation(summary = "Supprimer un produit par ID et ses images", description = "Supprime un produit et toutes les images associées de manière permanente.")
 
     public ResponseEntity<ApiRes<String>> deleteProduct(@Parameter(description = "ID unique du produit à supprimer", example = "1") @PathVariable Long id) {
-        Product product = productService.findById(id);
-        if (product == null) {
+        if (!productService.delete(id)) {
             throw new ResourceNotFoundException("Product not found with id " + id);
         }
-
-        List<Image> images = imageService.getImagesByProductId(id);
-
-        if (images == null || images.isEmpty()) {
-            throw new ResourceNotFoundException("Image not found with id " + id);
-        }
-        imageService.deleteImageAllByProductId(id);
-        productService.delete(id);
-
         return ResponseEntity.ok(ResponseBuilder.success("Product has been successfully deleted",null ));
     }
 
+    @DeleteMapping
+    @Operation(summary = "Supprimer plusieurs produits et leurs images", description = "Supprime en une seule fois les produits demandés et toutes leurs images. Les ids inconnus sont ignorés ; renvoie les ids supprimés.")
+    public ResponseEntity<ApiRes<List<Long>>> deleteProducts(@Parameter(description = "IDs des produits à supprimer", example = "1,2,3", required = true) @RequestParam List<Long> ids) {
+        List<Long> deleted = productService.deleteAll(ids);
+        return ResponseEntity.ok(ResponseBuilder.success("Products have been successfully deleted", deleted));
+    }
+
     @GetMapping("/{id}/stock")
     @Operation(summary = "Récupérer le nombre de stock du produit par ID", description = "Récupère la quantité de stock disponible pour un produit spécifique.")
-    public ResponseEntity<?> getProductStock(@Parameter(description = "ID unique du produit dont on veut récupérer le stock", example = "1") @PathVariable Long id) {
+    public ResponseEntity<?> getProductStock(@Parameter(description = "ID unique du produit dont on veut récupérer le stock", example = "1") @PathVariable Long id, WebRequest request) {
 
-       Product product = productService.findById(id);
-       if (product == null) {
+       // Le stock faisant partie du produit, sa version sert aussi d'ETag au stock ; tout provient d'une seule lecture (en cache)
+       ProductStockSnapshot snapshot = productService.getStockSnapshot(id);
+       if (snapshot == null) {
            throw new ResourceNotFoundException("Product not found with id " + id);
        }
-       return ResponseEntity.ok(ResponseBuilder.success("Product stock", product.getStock()));
+       String eTag = ConditionalRequestUtils.stockETag(id, snapshot.version());
+       if (ConditionalRequestUtils.isConditional(request)
+               && request.checkNotModified(eTag, ConditionalRequestUtils.lastModified(snapshot.updatedAt()))) {
+           return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+       }
+
+       return ResponseEntity.ok()
+               .eTag(eTag)
+               .lastModified(ConditionalRequestUtils.lastModified(snapshot.updatedAt()))
+               .body(ResponseBuilder.success("Product stock", snapshot.stock()));
+    }
+
+    @PostMapping("/stock/reserve")
+    @Operation(summary = "Réserver du stock", description = "Décrémente le stock de plusieurs produits de façon atomique, tout ou rien. Renvoie 409 si un produit n'a pas assez de stock.")
+    public ResponseEntity<ApiRes<Map<Long, Integer>>> reserveStock(@Valid @RequestBody StockReservationRequest request) {
+
+        Map<Long, Integer> stocks = productService.reserveStock(request.getItems());
+        return ResponseEntity.ok(ResponseBuilder.success("Stock has been successfully reserved", stocks));
+    }
+
+    @PostMapping("/stock/release")
+    @Operation(summary = "Libérer du stock", description = "Ré-incrémente le stock de plusieurs produits (annulation d'une réservation), tout ou rien.")
+    public ResponseEntity<ApiRes<Map<Long, Integer>>> releaseStock(@Valid @RequestBody StockReservationRequest request) {
+
+        Map<Long, Integer> stocks = productService.releaseStock(request.getItems());
+        return ResponseEntity.ok(ResponseBuilder.success("Stock has been successfully released", stocks));
+    }
+
+    @PatchMapping("/{id}/stock")
+    @Operation(summary = "Ajuster le stock d'un produit", description = "Ajoute ou retire une quantité au stock. En cas de modification concurrente, l'ajustement est rejoué automatiquement ; 409 si les tentatives sont épuisées ou si le stock deviendrait négatif.")
+    public ResponseEntity<ApiRes<Map<Long, Integer>>> adjustStock(@Parameter(description = "ID unique du produit", example = "1") @PathVariable Long id, @Valid @RequestBody StockAdjustmentRequest request) {
+        Map<Long, Integer> stocks = productService.adjustStock(id, request.getDelta());
+        return ResponseEntity.ok(ResponseBuilder.success("Stock has been successfully adjusted", stocks));
+    }
+
+    @GetMapping("/stock")
+    @Operation(summary = "Récupérer le stock de plusieurs produits", description = "Renvoie une map id → stock en une seule requête. Les produits inconnus sont absents de la map.")
+    public ResponseEntity<ApiRes<Map<Long, Integer>>> getProductsStock(@Parameter(description = "IDs des produits", example = "1,2,3", required = true) @RequestParam List<Long> ids) {
+
+        return ResponseEntity.ok(ResponseBuilder.success("Products stock", productService.getStockByProductIds(ids)));
     }
 }
@@ -15,4 +15,6 @@ public class ImageResponseDTO {
     private String title;
     @Schema(description = "Indique si c'est l'image principale du produit", example = "true")
     private boolean main;
+    @Schema(description = "Version de l'image, à renvoyer lors de sa modification", example = "0")
+    private Long version;
 }
\ No newline at end of file
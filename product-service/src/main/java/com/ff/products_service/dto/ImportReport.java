@@ -0,0 +1,42 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Rapport d'import en masse : compteurs, erreurs par ligne et débit.")
+public class ImportReport {
+    @Schema(description = "Nombre de lignes reçues (lignes vides et en-tête CSV exclus)", example = "1000")
+    private int received;
+    @Schema(description = "Nombre de produits enregistrés", example = "998")
+    private int imported;
+    @Schema(description = "Nombre de lignes rejetées", example = "2")
+    private int failed;
+    @Schema(description = "Erreurs par ligne, limitées par la configuration")
+    private List<RowError> errors;
+    @Schema(description = "Vrai si des erreurs ont été omises du rapport", example = "false")
+    private boolean errorsTruncated;
+    @Schema(description = "Durée de l'import en millisecondes", example = "850")
+    private long durationMs;
+    @Schema(description = "Débit en lignes par seconde", example = "1176.5")
+    private double rowsPerSecond;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Ligne rejetée et motif du rejet.")
+    public static class RowError {
+        @Schema(description = "Numéro de ligne dans le fichier (à partir de 1)", example = "42")
+        private long line;
+        @Schema(description = "Motif du rejet", example = "price: Le prix est obligatoire")
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Vignette produit pour les grilles du catalogue : champs essentiels et image principale uniquement.")
+public class ProductCardDTO {
+    @Schema(description = "ID unique du produit", example = "1")
+    private Long id;
+    @Schema(description = "Nom du produit", example = "Chaise Ergonomique")
+    private String name;
+    @Schema(description = "Prix du produit", example = "250.00")
+    private BigDecimal price;
+    @Schema(description = "Quantité en stock", example = "12")
+    private int stock;
+    @Schema(description = "URL de l'image principale. Null si le produit n'en a pas.", example = "https://cdn.example.com/chaise.jpg")
+    private String mainImageUrl;
+}
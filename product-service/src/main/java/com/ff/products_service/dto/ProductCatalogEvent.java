@@ -0,0 +1,20 @@
+package com.ff.products_service.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Message publié sur l'exchange des événements produit (routing key product.&lt;type&gt;).
+ * Les champs du produit sont null pour DELETED ; seuls le stock et la version sont renseignés pour STOCK_CHANGED.
+ */
+public record ProductCatalogEvent(
+        String type,
+        Long productId,
+        String name,
+        BigDecimal price,
+        Integer stock,
+        Long version,
+        Instant occurredAt) {
+
+    public static final String STOCK_CHANGED = "STOCK_CHANGED";
+}
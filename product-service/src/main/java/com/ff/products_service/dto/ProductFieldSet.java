@@ -0,0 +1,85 @@
+package com.ff.products_service.dto;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Champs demandés par le paramètre {@code fields=} des lectures produit (liste blanche).
+ * Les colonnes sont sélectionnées par projection ; les images ne sont lues que si {@code images} est demandé.
+ * L'id est toujours renvoyé.
+ */
+public final class ProductFieldSet {
+
+    public enum Field {
+        ID("id"), NAME("name"), DESCRIPTION("description"), PRICE("price"), STOCK("stock"),
+        VERSION("version"), UPDATED_AT("updatedAt"), IMAGES("images");
+
+        private final String attribute;
+
+        Field(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+
+        static Field from(String name) {
+            for (Field field : values()) {
+                if (field.attribute.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            String known = EnumSet.allOf(Field.class).stream().map(Field::attribute).collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Champ inconnu : " + name + " (" + known + ").");
+        }
+    }
+
+    private final Set<Field> fields;
+
+    private ProductFieldSet(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /** Analyse une liste de champs séparés par des virgules, par exemple {@code name,price}. */
+    public static ProductFieldSet parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("Le paramètre fields doit contenir au moins un champ.");
+        }
+        Set<Field> parsed = EnumSet.of(Field.ID);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(Field.from(name.trim()));
+            }
+        }
+        return new ProductFieldSet(parsed);
+    }
+
+    public boolean contains(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean includesImages() {
+        return fields.contains(Field.IMAGES);
+    }
+
+    /** Attributs de Product à sélectionner, dans l'ordre de déclaration (les images sont lues à part). */
+    public List<String> attributes() {
+        List<String> attributes = new ArrayList<>();
+        for (Field field : fields) {
+            if (field != Field.IMAGES) {
+                attributes.add(field.attribute());
+            }
+        }
+        return attributes;
+    }
+
+    /** Forme canonique des champs (indépendante de l'ordre et de la casse de la requête), utilisée dans l'ETag. */
+    public String variant() {
+        return fields.stream().map(field -> field.attribute().toLowerCase(Locale.ROOT)).collect(Collectors.joining("."));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Page de produits réduits aux champs demandés (fields=), paginée par curseur (keyset sur l'id).")
+public class ProductFieldsPageResponse {
+    @Schema(description = "Produits de la page, triés par id croissant, limités aux champs demandés")
+    private List<Map<String, Object>> items;
+    @Schema(description = "Curseur opaque à renvoyer pour obtenir la page suivante. Null s'il n'y a plus de produits.", example = "aWQ6NTA")
+    private String nextCursor;
+    @Schema(description = "Taille de page appliquée", example = "50")
+    private int size;
+}
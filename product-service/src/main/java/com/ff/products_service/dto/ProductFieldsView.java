@@ -0,0 +1,11 @@
+package com.ff.products_service.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Produit réduit aux champs demandés, accompagné de sa version et de sa date de modification
+ * (lues dans la même requête pour l'ETag, même si elles n'ont pas été demandées).
+ */
+public record ProductFieldsView(Map<String, Object> fields, Long version, Instant updatedAt) {
+}
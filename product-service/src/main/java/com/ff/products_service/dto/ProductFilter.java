@@ -0,0 +1,68 @@
+package com.ff.products_service.dto;
+
+import com.ff.products_service.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Critères de filtrage et de tri du catalogue (GET /api/products/filter).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilter {
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean inStock;
+    private String namePrefix;
+    @Builder.Default
+    private SortField sort = SortField.ID;
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    public enum SortField {
+        ID("id", product -> String.valueOf(product.getId())),
+        PRICE("price", product -> product.getPrice().toPlainString()),
+        NAME("name", Product::getName);
+
+        private final String attribute;
+        private final Function<Product, String> cursorValue;
+
+        SortField(String attribute, Function<Product, String> cursorValue) {
+            this.attribute = attribute;
+            this.cursorValue = cursorValue;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+
+        public String cursorValue(Product product) {
+            return cursorValue.apply(product);
+        }
+
+        public static SortField from(String value) {
+            for (SortField field : values()) {
+                if (field.attribute.equals(value.toLowerCase(Locale.ROOT))) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Tri inconnu : " + value + " (id, price ou name).");
+        }
+    }
+
+    public Sort toSort() {
+        Sort sortOrder = Sort.by(direction, sort.attribute());
+        // L'id départage les égalités : l'ordre est total, condition de la pagination keyset
+        return sort == SortField.ID ? sortOrder : sortOrder.and(Sort.by(direction, "id"));
+    }
+}
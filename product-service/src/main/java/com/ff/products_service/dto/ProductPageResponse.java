@@ -0,0 +1,22 @@
+package com.ff.products_service.dto;
+
+import com.ff.products_service.entity.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Page de produits paginée par curseur (keyset sur l'id).")
+public class ProductPageResponse {
+    @Schema(description = "Produits de la page, triés par id croissant")
+    private List<Product> items;
+    @Schema(description = "Curseur opaque à renvoyer pour obtenir la page suivante. Null s'il n'y a plus de produits.", example = "aWQ6NTA")
+    private String nextCursor;
+    @Schema(description = "Taille de page appliquée", example = "50")
+    private int size;
+}
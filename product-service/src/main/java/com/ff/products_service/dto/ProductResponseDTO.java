@@ -19,6 +19,8 @@ public class ProductResponseDTO {
     private BigDecimal price;
     @Schema(description = "Quantité en stock", example = "100")
     private Integer stock;
+    @Schema(description = "Version du produit, à renvoyer lors de sa modification", example = "0")
+    private Long version;
     @Schema(description = "Liste des images associées au produit")
     private List<ImageResponseDTO> images;
 }
\ No newline at end of file
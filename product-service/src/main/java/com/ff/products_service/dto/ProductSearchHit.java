@@ -0,0 +1,23 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Produit trouvé par la recherche, avec son score de pertinence.")
+public class ProductSearchHit {
+    @Schema(description = "ID unique du produit", example = "1")
+    private Long id;
+    @Schema(description = "Nom du produit", example = "Chaise Ergonomique")
+    private String name;
+    @Schema(description = "Prix du produit", example = "250.00")
+    private BigDecimal price;
+    @Schema(description = "Score de pertinence (plus élevé = plus pertinent)", example = "4.2")
+    private double score;
+}
@@ -0,0 +1,13 @@
+package com.ff.products_service.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection des colonnes indexées par la recherche plein texte.
+ */
+public interface ProductSearchView {
+    Long getId();
+    String getName();
+    String getDescription();
+    BigDecimal getPrice();
+}
@@ -0,0 +1,10 @@
+package com.ff.products_service.dto;
+
+import java.time.Instant;
+
+/**
+ * Stock d'un produit lu avec sa version et sa date de modification en une seule requête :
+ * l'ETag et la valeur renvoyée proviennent toujours de la même lecture.
+ */
+public record ProductStockSnapshot(int stock, Long version, Instant updatedAt) {
+}
@@ -0,0 +1,10 @@
+package com.ff.products_service.dto;
+
+/**
+ * Projection ne lisant que l'id, le stock et la version d'un produit.
+ */
+public interface ProductStockView {
+    Long getId();
+    int getStock();
+    Long getVersion();
+}
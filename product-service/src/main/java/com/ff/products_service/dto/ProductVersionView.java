@@ -0,0 +1,11 @@
+package com.ff.products_service.dto;
+
+import java.time.Instant;
+
+/**
+ * Projection de la version d'un produit, utilisée pour les requêtes conditionnelles (ETag / Last-Modified).
+ */
+public interface ProductVersionView {
+    Long getVersion();
+    Instant getUpdatedAt();
+}
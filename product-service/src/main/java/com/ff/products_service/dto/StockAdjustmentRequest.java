@@ -0,0 +1,17 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ajustement relatif du stock d'un produit (réassort, inventaire). Commutatif : rejoué automatiquement en cas de modification concurrente.")
+public class StockAdjustmentRequest {
+    @NotNull(message = "La variation de stock est obligatoire")
+    @Schema(description = "Quantité ajoutée (positive) ou retirée (négative)", example = "-3")
+    private Integer delta;
+}
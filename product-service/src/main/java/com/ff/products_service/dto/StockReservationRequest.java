@@ -0,0 +1,39 @@
+package com.ff.products_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Requête pour réserver ou libérer du stock sur plusieurs produits. Tout ou rien : si une ligne échoue, aucune n'est appliquée.")
+public class StockReservationRequest {
+
+    @Valid
+    @NotEmpty(message = "La liste des produits ne peut être vide")
+    @Schema(description = "Produits et quantités concernés")
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Quantité à réserver ou libérer pour un produit.")
+    public static class Item {
+        @NotNull(message = "Le Id Produit est obligatoire")
+        @Schema(description = "ID du produit", example = "1")
+        private Long productId;
+
+        @NotNull(message = "La quantité est obligatoire")
+        @Positive(message = "La quantité doit être positive")
+        @Schema(description = "Quantité", example = "2")
+        private Integer quantity;
+    }
+}
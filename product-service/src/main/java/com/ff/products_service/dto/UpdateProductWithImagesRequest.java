@@ -18,6 +18,9 @@ public class UpdateProductWithImagesRequest {
     @Schema(description = "ID unique du produit à modifier", example = "123")
     private Long id;
 
+    @Schema(description = "Version du produit lue par le client. Si elle n'est plus la version courante, la modification est refusée (409). Absente : aucune vérification.", example = "3")
+    private Long version;
+
     @NotBlank(message = "Le Nom est obligatoire")
     @Schema(description = "Nouveau nom du produit", example = "Ordinateur Portable Pro Max")
     private String name;
@@ -46,6 +49,9 @@ public class UpdateProductWithImagesRequest {
         @Schema(description = "ID de l'image. Null pour une nouvelle image, requis pour modifier ou supprimer une image existante.", example = "456")
         private Long id;
 
+        @Schema(description = "Version de l'image lue par le client, vérifiée comme celle du produit. Absente : aucune vérification.", example = "0")
+        private Long version;
+
         @NotBlank(message = "L'URL est obligatoire")
         @Schema(description = "URL de l'image", example = "https://example.com/images/laptop-new-main.jpg")
         private String url;
@@ -4,20 +4,30 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+// Recherche de l'image principale d'un produit (vignettes du catalogue)
+@Table(indexes = @Index(name = "ix_image_product_main", columnList = "product_id, main"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Image {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_seq")
+    @SequenceGenerator(name = "image_seq", sequenceName = "image_seq", allocationSize = 50)
     private Long id;
     private String url;
     private String title;
     private boolean main;
 
+    // Verrouillage optimiste : une image modifiée entre la lecture et l'écriture fait échouer la mise à jour
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     @JsonBackReference
@@ -0,0 +1,34 @@
+package com.ff.products_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Événement catalogue enregistré dans la même transaction que l'écriture produit,
+ * puis publié sur le broker par OutboxRelay (publishedAt renseigné une fois confirmé).
+ * Pendant la publication, l'événement est réservé par un bail (leaseToken, leasedUntil) : aucun verrou
+ * n'est tenu en base pendant l'aller-retour vers le broker.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "ix_outbox_event_published_at", columnList = "publishedAt, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+    private Long productId;
+    private String eventType;
+    @Lob
+    private String payload;
+    private Instant createdAt;
+    private Instant publishedAt;
+    @Column(length = 36)
+    private String leaseToken;
+    private Instant leasedUntil;
+}
@@ -2,8 +2,10 @@ package com.ff.products_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -12,10 +14,17 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+// Index du catalogue filtré (GET /api/products/filter) : plage de prix et préfixe de nom, l'id départageant le tri
+@Table(indexes = {
+        @Index(name = "ix_product_price_id", columnList = "price, id"),
+        @Index(name = "ix_product_name_id", columnList = "name, id"),
+        @Index(name = "ix_product_stock_price", columnList = "stock, price")
+})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
@@ -23,6 +32,14 @@ public class Product {
     private BigDecimal price;
     private  int stock;
 
+    // Incrémentée à chaque modification du produit ou de ses images : sert d'ETag.
+    // Jamais nulle : les mises à jour JPQL du stock font version + 1 (lignes existantes, voir db/migration-sequences-versions.sql)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    private Instant updatedAt;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Image> images;
 
@@ -0,0 +1,16 @@
+package com.ff.products_service.event;
+
+import com.ff.products_service.entity.Product;
+
+/**
+ * Publié par ProductService à chaque écriture sur un produit.
+ * {@code product} vaut null pour une suppression.
+ */
+public record ProductChangedEvent(Type type, Long productId, Product product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
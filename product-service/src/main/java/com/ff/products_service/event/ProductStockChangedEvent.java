@@ -0,0 +1,13 @@
+package com.ff.products_service.event;
+
+import java.util.List;
+
+/**
+ * Publié par ProductService après une réservation, une libération ou un ajustement de stock : nouveau stock
+ * et nouvelle version de chaque produit (la version ordonne ces événements avec les autres événements produit).
+ */
+public record ProductStockChangedEvent(List<Stock> stocks) {
+
+    public record Stock(Long productId, int stock, Long version) {
+    }
+}
@@ -2,8 +2,12 @@ package com.ff.products_service.repository;
 
 import com.ff.products_service.entity.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,13 @@ public interface ImageRepository extends JpaRepository<Image,Long> {
     List<Image> findByProductId(Long productId);
     Optional<Image> findFirstByProductIdAndMainTrue(Long productId);
 
+    // Images de plusieurs produits en une requête (champ images des lectures partielles)
+    @Query("select i from Image i where i.product.id in :productIds order by i.id")
+    List<Image> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Suppression groupée en un seul DELETE, sans charger les images
+    @Modifying
+    @Query("delete from Image i where i.product.id in :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.ff.products_service.repository;
+
+import com.ff.products_service.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Lecture sans verrou : la réservation elle-même est faite par claim(), conditionnelle
+    @Query("select e.id from OutboxEvent e where e.publishedAt is null"
+            + " and (e.leasedUntil is null or e.leasedUntil < :now) order by e.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Limit limit);
+
+    // Ne réserve que les événements encore libres : deux relais concurrents ne prennent jamais le même
+    @Modifying
+    @Query("update OutboxEvent e set e.leaseToken = :token, e.leasedUntil = :until where e.id in :ids"
+            + " and e.publishedAt is null and (e.leasedUntil is null or e.leasedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("until") Instant until, @Param("now") Instant now);
+
+    List<OutboxEvent> findByLeaseTokenOrderById(String leaseToken);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt, e.leaseToken = null, e.leasedUntil = null"
+            + " where e.leaseToken = :token")
+    int markPublished(@Param("token") String token, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.leaseToken = null, e.leasedUntil = null where e.leaseToken = :token")
+    int release(@Param("token") String token);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+
+    long countByPublishedAtIsNull();
+}
@@ -0,0 +1,26 @@
+package com.ff.products_service.repository;
+
+import com.ff.products_service.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requêtes Criteria du catalogue, ajoutées à ProductRepository (implémentation : ProductQueryRepositoryImpl).
+ */
+public interface ProductQueryRepository {
+
+    /**
+     * Ids des produits correspondant au critère, triés, limités à {@code limit} : les images sont chargées ensuite
+     * en une requête pour la page seulement.
+     */
+    List<Long> findIds(Specification<Product> spec, Sort sort, int limit);
+
+    /**
+     * Seules les colonnes {@code attributes} des produits correspondant au critère : une Map par produit,
+     * clés dans l'ordre des attributs. Aucune entité n'est chargée.
+     */
+    List<Map<String, Object>> findAttributes(Specification<Product> spec, Sort sort, List<String> attributes, int limit);
+}
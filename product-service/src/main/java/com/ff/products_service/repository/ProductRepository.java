@@ -1,9 +1,89 @@
 package com.ff.products_service.repository;
 
+import com.ff.products_service.dto.ProductCardDTO;
+import com.ff.products_service.dto.ProductSearchView;
+import com.ff.products_service.dto.ProductStockSnapshot;
+import com.ff.products_service.dto.ProductStockView;
+import com.ff.products_service.dto.ProductVersionView;
 import com.ff.products_service.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product,Long> {
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product,Long>, ProductQueryRepository {
+
+    // Produit + images en une seule requête (LEFT JOIN)
+    @EntityGraph(attributePaths = "images")
+    Optional<Product> findWithImagesById(Long id);
+
+    @EntityGraph(attributePaths = "images")
+    @Query("select p from Product p order by p.id")
+    List<Product> findAllWithImages();
+
+    // Pagination keyset : on lit d'abord les ids de la page, puis les produits et leurs images en une requête
+    @Query("select p.id from Product p where p.id > :afterId order by p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Vignettes : une seule requête, jointure sur l'image principale uniquement (la plus ancienne si plusieurs sont marquées)
+    @Query("select new com.ff.products_service.dto.ProductCardDTO(p.id, p.name, p.price, p.stock, i.url) from Product p"
+            + " left join Image i on i.id = (select min(m.id) from Image m where m.product = p and m.main = true)"
+            + " where p.id > :afterId order by p.id")
+    List<ProductCardDTO> findCardsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "images")
+    List<Product> findWithImagesByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Lecture du stock seul, sans matérialiser l'entité
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    @Query("select new com.ff.products_service.dto.ProductStockSnapshot(p.stock, p.version, p.updatedAt) from Product p where p.id = :id")
+    Optional<ProductStockSnapshot> findStockSnapshotById(@Param("id") Long id);
+
+    @Query("select p.id as id, p.stock as stock, p.version as version from Product p where p.id in :ids")
+    List<ProductStockView> findStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from Product p where p.id in :ids order by p.id")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Les images doivent être supprimées avant (ImageRepository.deleteByProductIdIn)
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reconstruction de l'index de recherche, par plages d'ids traitées en parallèle
+    @Query("select min(p.id) from Product p")
+    Long findMinId();
+
+    @Query("select max(p.id) from Product p")
+    Long findMaxId();
+
+    @Query("select p.id as id, p.name as name, p.description as description, p.price as price from Product p"
+            + " where p.id > :afterId and p.id <= :toId order by p.id")
+    List<ProductSearchView> findSearchViews(@Param("afterId") Long afterId, @Param("toId") Long toId, Limit limit);
+
+    @Query("select p.version as version, p.updatedAt as updatedAt from Product p where p.id = :id")
+    Optional<ProductVersionView> findVersionById(@Param("id") Long id);
+
+    // Décrément conditionnel atomique : 0 ligne modifiée si le stock est insuffisant.
+    // La version est incrémentée pour invalider les ETags.
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = :now"
+            + " where p.id = :id and p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update Product p set p.stock = p.stock + :quantity, p.version = p.version + 1, p.updatedAt = :now"
+            + " where p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+}
@@ -0,0 +1,97 @@
+package com.ff.products_service.repository;
+
+import com.ff.products_service.dto.ProductFilter;
+import com.ff.products_service.entity.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères du catalogue filtré. Chaque critère reste utilisable par un index (pas de fonction sur les colonnes) :
+ * voir les index déclarés sur Product.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> specs = new ArrayList<>();
+        if (filter.getMinPrice() != null) {
+            specs.add(priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            specs.add(priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.isInStock()) {
+            specs.add(inStock());
+        }
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isBlank()) {
+            specs.add(nameStartsWith(filter.getNamePrefix()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Product> idEquals(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Product> idAfter(Long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stock"), 0);
+    }
+
+    // LIKE 'prefixe%' : recherche d'intervalle sur l'index du nom. La casse suit la collation de la base.
+    public static Specification<Product> nameStartsWith(String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (root, query, cb) -> cb.like(root.get("name"), escaped + "%", '\\');
+    }
+
+    /**
+     * Produits situés après (sort, id) dans l'ordre du tri : (valeur > v) ou (valeur = v et id > dernier id).
+     */
+    public static Specification<Product> after(ProductFilter.SortField sort, Sort.Direction direction, String lastValue, Long lastId) {
+        switch (sort) {
+            case PRICE:
+                BigDecimal lastPrice;
+                try {
+                    lastPrice = new BigDecimal(lastValue);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Curseur de pagination invalide.");
+                }
+                return (root, query, cb) -> afterKey(cb, root.get("price"), lastPrice, root.get("id"), lastId, direction);
+            case NAME:
+                return (root, query, cb) -> afterKey(cb, root.get("name"), lastValue, root.get("id"), lastId, direction);
+            default:
+                return (root, query, cb) -> beyond(cb, root.get("id"), lastId, direction);
+        }
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate afterKey(CriteriaBuilder cb, Expression<Y> key, Y lastValue,
+                                                                      Expression<Long> id, Long lastId, Sort.Direction direction) {
+        return cb.or(
+                beyond(cb, key, lastValue, direction),
+                cb.and(cb.equal(key, lastValue), beyond(cb, id, lastId, direction)));
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder cb, Expression<Y> expression, Y value, Sort.Direction direction) {
+        return direction.isAscending() ? cb.greaterThan(expression, value) : cb.lessThan(expression, value);
+    }
+}
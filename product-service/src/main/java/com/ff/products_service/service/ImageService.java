@@ -4,6 +4,7 @@ import com.ff.products_service.entity.Image;
 import com.ff.products_service.repository.ImageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,12 +13,19 @@ public class ImageService {
     @Autowired
     ImageRepository imageRepository;
 
+    // Lectures seules : servies par un réplica si le routage est configuré (DataSourceRoutingConfig)
+    @Transactional(readOnly = true)
     public List<Image> getImagesByProductId(Long productId){
         return imageRepository.findByProductId(productId);
     }
 
-    public void createImage(Image image){
-        imageRepository.save(image);
+    public Image createImage(Image image){
+        return imageRepository.save(image);
+    }
+
+    // Enregistrement groupé : les INSERT/UPDATE partent en batch JDBC au flush
+    public List<Image> createImages(List<Image> images){
+        return imageRepository.saveAll(images);
     }
 
     public void updateImage(Long id, Image newImage){
@@ -38,6 +46,7 @@ public class ImageService {
         imageRepository.deleteAll(images);
     }
 
+    @Transactional(readOnly = true)
     public Image findImageById(Long id) {
         return imageRepository.findById(id).orElse(null);
     }
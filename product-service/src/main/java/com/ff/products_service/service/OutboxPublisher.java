@@ -0,0 +1,17 @@
+package com.ff.products_service.service;
+
+import com.ff.products_service.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Envoi des événements de l'outbox vers le broker.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publie les événements dans l'ordre et ne rend la main qu'une fois le lot confirmé par le broker ;
+     * lève une exception sinon (le lot sera republié, les consommateurs dédoublonnent sur l'id du message).
+     */
+    void publish(List<OutboxEvent> events);
+}
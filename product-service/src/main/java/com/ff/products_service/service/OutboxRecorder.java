@@ -0,0 +1,78 @@
+package com.ff.products_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.dto.ProductCatalogEvent;
+import com.ff.products_service.entity.OutboxEvent;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.event.ProductChangedEvent;
+import com.ff.products_service.event.ProductStockChangedEvent;
+import com.ff.products_service.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écrit les événements produit dans l'outbox. Écouteur synchrone : l'écriture a lieu dans la transaction
+ * de ProductService, l'événement n'existe donc que si la modification est validée.
+ */
+@Component
+public class OutboxRecorder {
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public OutboxRecorder(OutboxEventRepository outboxRepo, ObjectMapper objectMapper, EntityManager entityManager) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.product();
+        if (event.type() == ProductChangedEvent.Type.UPDATED) {
+            // @Version n'est incrémentée qu'au flush : l'événement doit porter la version écrite, pas la précédente.
+            // Inutile pour CREATED (version initialisée dès le persist) : un import ne flushe pas une fois par produit
+            entityManager.flush();
+        }
+        ProductCatalogEvent payload = product == null
+                ? new ProductCatalogEvent(event.type().name(), event.productId(), null, null, null, null, Instant.now())
+                : new ProductCatalogEvent(event.type().name(), event.productId(), product.getName(), product.getPrice(),
+                        product.getStock(), product.getVersion(), Instant.now());
+        outboxRepo.save(toOutboxEvent(payload));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(event.stocks().size());
+        for (ProductStockChangedEvent.Stock stock : event.stocks()) {
+            events.add(toOutboxEvent(new ProductCatalogEvent(ProductCatalogEvent.STOCK_CHANGED, stock.productId(),
+                    null, null, stock.stock(), stock.version(), now)));
+        }
+        outboxRepo.saveAll(events);
+    }
+
+    private OutboxEvent toOutboxEvent(ProductCatalogEvent payload) {
+        try {
+            return OutboxEvent.builder()
+                    .productId(payload.productId())
+                    .eventType(payload.type())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(payload.occurredAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de l'événement produit impossible", e);
+        }
+    }
+}
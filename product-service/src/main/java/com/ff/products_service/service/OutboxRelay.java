@@ -0,0 +1,92 @@
+package com.ff.products_service.service;
+
+import com.ff.products_service.entity.OutboxEvent;
+import com.ff.products_service.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Relaie les événements de l'outbox vers le broker par lots, dans l'ordre des ids.
+ * Trois temps : réservation du lot (transaction courte), publication hors transaction, marquage publié
+ * (transaction courte). Les écritures produit n'attendent donc jamais le broker.
+ * Livraison au moins une fois : un lot dont la publication échoue est libéré et sera republié ; un relais
+ * arrêté en cours de publication perd son bail à son expiration. Entre plusieurs instances, des lots peuvent
+ * être publiés dans le désordre : les consommateurs ordonnent sur la version du produit et dédoublonnent sur l'id.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${product.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${product.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo, OutboxPublisher publisher, TransactionTemplate transactionTemplate) {
+        this.outboxRepo = outboxRepo;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Publie un lot d'événements en attente. Renvoie le nombre d'événements publiés.
+     */
+    public int publishPending() {
+        String token = UUID.randomUUID().toString();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = outboxRepo.findClaimableIds(now, Limit.of(batchSize));
+            if (ids.isEmpty() || outboxRepo.claim(ids, token, now.plusMillis(leaseMs), now) == 0) {
+                return List.<OutboxEvent>of();
+            }
+            return outboxRepo.findByLeaseTokenOrderById(token);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            publisher.publish(batch);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepo.release(token));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.markPublished(token, Instant.now()));
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${product.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = publishPending();
+            } while (published > 0);
+        } catch (RuntimeException e) {
+            log.warn("Publication des événements produit impossible, nouvel essai au prochain passage", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        Instant before = Instant.now().minus(Duration.ofHours(retentionHours));
+        Integer deleted = transactionTemplate.execute(status -> outboxRepo.deletePublishedBefore(before));
+        log.debug("{} événements publiés supprimés de l'outbox", deleted);
+    }
+}
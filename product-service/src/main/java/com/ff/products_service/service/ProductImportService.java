@@ -0,0 +1,261 @@
+package com.ff.products_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.dto.ImportReport;
+import com.ff.products_service.dto.ProductWithImagesRequest;
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.utils.CsvUtils;
+import com.ff.products_service.utils.ImageValidationUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de produits depuis un flux NDJSON ou CSV.
+ * Le flux est lu ligne par ligne et les produits valides sont enregistrés par lots, une transaction par lot :
+ * la mémoire utilisée dépend de la taille du lot, pas de celle du fichier.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "stock", "images");
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${product.import.batch-size:200}")
+    private int defaultBatchSize;
+
+    @Value("${product.import.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${product.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public ProductImportService(ProductService productService, ObjectMapper objectMapper, Validator validator, TransactionTemplate transactionTemplate) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public int resolveBatchSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return defaultBatchSize;
+        }
+        return Math.min(requestedSize, maxBatchSize);
+    }
+
+    /**
+     * Importe les produits du flux. Une ligne invalide est rejetée seule ; si l'enregistrement d'un lot échoue,
+     * toutes les lignes du lot sont rejetées et l'import continue avec le lot suivant.
+     */
+    public ImportReport importProducts(InputStream in, Format format, Integer requestedBatchSize) throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(resolveBatchSize(requestedBatchSize));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = readCsvHeader(line);
+                continue;
+            }
+            run.received++;
+            try {
+                ProductWithImagesRequest request = format == Format.NDJSON
+                        ? objectMapper.readValue(line, ProductWithImagesRequest.class)
+                        : fromCsv(CsvUtils.parseLine(line), columns);
+                validate(request);
+                run.add(lineNumber, toProduct(request));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "JSON invalide : " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+            if (run.pending.size() >= run.batchSize) {
+                saveBatch(run);
+            }
+        }
+        saveBatch(run);
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        return ImportReport.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.failed)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .durationMs(durationMs)
+                .rowsPerSecond(durationMs == 0 ? run.received : run.received * 1000.0 / durationMs)
+                .build();
+    }
+
+    private void saveBatch(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        List<Product> batch = run.pending;
+        List<Long> lines = run.pendingLines;
+        run.pending = new ArrayList<>(run.batchSize);
+        run.pendingLines = new ArrayList<>(run.batchSize);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productService.createAll(batch);
+                // Avec open-in-view, le contexte de persistance vit toute la requête : on le vide à chaque lot
+                entityManager.flush();
+                entityManager.clear();
+            });
+            run.imported += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Échec de l'enregistrement d'un lot de {} produits (lignes {} à {})", batch.size(), lines.get(0), lines.get(lines.size() - 1), e);
+            for (Long line : lines) {
+                run.reject(line, "Échec de l'enregistrement du lot : " + e.getMessage());
+            }
+        }
+    }
+
+    private void validate(ProductWithImagesRequest request) {
+        Set<ConstraintViolation<ProductWithImagesRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        ImageValidationUtils.validateSingleMainImage(request.getImages() == null ? List.of() : request.getImages());
+    }
+
+    private Product toProduct(ProductWithImagesRequest request) {
+        Product product = Product.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .stock(request.getStock())
+                .images(new ArrayList<>())
+                .build();
+        for (ProductWithImagesRequest.ImageRequest imageReq : request.getImages()) {
+            product.getImages().add(Image.builder()
+                    .url(imageReq.getUrl())
+                    .title(imageReq.getTitle())
+                    .main(Boolean.TRUE.equals(imageReq.getMain()))
+                    .product(product)
+                    .build());
+        }
+        return product;
+    }
+
+    private Map<String, Integer> readCsvHeader(String line) {
+        List<String> header = CsvUtils.parseLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Colonne CSV manquante : " + column + " (attendu : " + String.join(",", CSV_COLUMNS) + ").");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Colonne images : entrées "url|titre" séparées par ';', la première étant l'image principale.
+     */
+    private ProductWithImagesRequest fromCsv(List<String> fields, Map<String, Integer> columns) {
+        ProductWithImagesRequest request = new ProductWithImagesRequest();
+        request.setName(field(fields, columns, "name"));
+        request.setDescription(field(fields, columns, "description"));
+        String price = field(fields, columns, "price");
+        String stock = field(fields, columns, "stock");
+        try {
+            request.setPrice(price.isBlank() ? null : new BigDecimal(price.trim()));
+            request.setStock(stock.isBlank() ? 0 : Integer.parseInt(stock.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Prix ou stock invalide : " + price + ", " + stock);
+        }
+
+        List<ProductWithImagesRequest.ImageRequest> images = new ArrayList<>();
+        for (String entry : field(fields, columns, "images").split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("\\|", 2);
+            ProductWithImagesRequest.ImageRequest image = new ProductWithImagesRequest.ImageRequest();
+            image.setUrl(parts[0].trim());
+            image.setTitle(parts.length > 1 ? parts[1].trim() : "");
+            image.setMain(images.isEmpty());
+            images.add(image);
+        }
+        request.setImages(images);
+        return request;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private final class ImportRun {
+        private final int batchSize;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private List<Product> pending;
+        private List<Long> pendingLines;
+        private int received;
+        private int imported;
+        private int failed;
+
+        private ImportRun(int batchSize) {
+            this.batchSize = batchSize;
+            this.pending = new ArrayList<>(batchSize);
+            this.pendingLines = new ArrayList<>(batchSize);
+        }
+
+        private void add(long line, Product product) {
+            pending.add(product);
+            pendingLines.add(line);
+        }
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ff.products_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.event.ProductChangedEvent;
+import com.ff.products_service.utils.ConditionalRequestUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * Instantanés JSON pré-sérialisés des produits, stockés hors tas (ByteBuffer direct).
+ * Une lecture de produit n'a plus à repasser par Jackson : les octets sont recopiés tels quels dans la réponse
+ * (voir ProductJsonHttpMessageConverter). Les entrées sont indexées par id et vérifiées sur la version du produit :
+ * une version périmée n'est jamais servie. Taille bornée en octets, éviction W-TinyLFU (Caffeine).
+ */
+@Component
+public class ProductJsonSnapshotCache {
+
+    public static final String CACHE_NAME = "productJson";
+
+    /**
+     * JSON du produit et, si gzip est activé, ce même JSON compressé en blocs deflate alignés sur l'octet
+     * (SYNC_FLUSH, sans bloc final) pour pouvoir être inséré au milieu d'un flux gzip.
+     */
+    public record Snapshot(long version, ByteBuffer json, ByteBuffer deflated) {
+        int weight() {
+            return json.capacity() + (deflated == null ? 0 : deflated.capacity());
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final Cache<Long, Snapshot> snapshots;
+
+    public ProductJsonSnapshotCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    @Value("${product.json-cache.enabled:true}") boolean enabled,
+                                    @Value("${product.json-cache.max-bytes:67108864}") long maxBytes,
+                                    @Value("${product.json-cache.gzip:true}") boolean gzipEnabled) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Snapshot snapshot) -> snapshot.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, CACHE_NAME);
+        Gauge.builder("product.json.snapshot.bytes", this, ProductJsonSnapshotCache::offHeapBytes)
+                .description("Octets hors tas occupés par les instantanés JSON produit")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isGzipEnabled() {
+        return enabled && gzipEnabled;
+    }
+
+    // Même décision que ProductJsonHttpMessageConverter : permet de calculer l'ETag avant d'écrire la réponse
+    public boolean servesGzip(@Nullable String acceptEncoding) {
+        return isGzipEnabled() && ConditionalRequestUtils.acceptsGzip(acceptEncoding);
+    }
+
+    /**
+     * Renvoie l'instantané de cette version du produit, en le sérialisant s'il est absent ou périmé.
+     * Null si le cache est désactivé.
+     */
+    public Snapshot getOrRender(Product product) throws JsonProcessingException {
+        if (!enabled || product.getId() == null) {
+            return null;
+        }
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        Snapshot snapshot = snapshots.getIfPresent(product.getId());
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot;
+        }
+        byte[] json = objectMapper.writeValueAsBytes(product);
+        snapshot = new Snapshot(version, toDirectBuffer(json), gzipEnabled ? toDirectBuffer(deflate(json)) : null);
+        snapshots.put(product.getId(), snapshot);
+        return snapshot;
+    }
+
+    public void invalidate(Long productId) {
+        snapshots.invalidate(productId);
+    }
+
+    public long offHeapBytes() {
+        return snapshots.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            int written;
+            do {
+                written = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+                out.write(chunk, 0, written);
+            } while (written == chunk.length);
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
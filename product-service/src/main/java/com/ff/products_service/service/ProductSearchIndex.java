@@ -0,0 +1,328 @@
+package com.ff.products_service.service;
+
+import com.ff.products_service.dto.ProductSearchHit;
+import com.ff.products_service.dto.ProductSearchView;
+import com.ff.products_service.event.ProductChangedEvent;
+import com.ff.products_service.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire sur le nom et la description des produits.
+ * Les termes sont normalisés (minuscules, sans accents ni ligatures), chaque terme de la requête
+ * matche aussi les termes qui le prolongent (recherche par préfixe) et les résultats sont classés par BM25.
+ * L'index est mis à jour après chaque commit d'écriture produit et reconstruit en parallèle au démarrage.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Un terme trouvé seulement par préfixe compte moitié moins qu'un terme exact
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "le", "la", "les", "un", "une", "des", "de", "du", "et", "ou", "en", "au", "aux",
+            "pour", "par", "sur", "avec", "sans", "dans", "ce", "ces", "son", "sa", "ses");
+
+    private final ProductRepository productRepo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexState state = new IndexState();
+    // Changements reçus pendant une reconstruction, rejoués sur le nouvel index (null = suppression)
+    private List<Map.Entry<Long, IndexedProduct>> pendingChanges;
+
+    @Value("${product.search.rebuild-threads:0}")
+    private int rebuildThreads;
+
+    public ProductSearchIndex(ProductRepository productRepo) {
+        this.productRepo = productRepo;
+    }
+
+    public void index(Long id, String name, String description, BigDecimal price) {
+        IndexedProduct document = IndexedProduct.of(id, name, description, price);
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            state.add(document);
+            if (pendingChanges != null) {
+                pendingChanges.add(new AbstractMap.SimpleEntry<>(id, document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            if (pendingChanges != null) {
+                pendingChanges.add(new AbstractMap.SimpleEntry<>(id, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            remove(event.productId());
+        } else {
+            index(event.productId(), event.product().getName(), event.product().getDescription(), event.product().getPrice());
+        }
+    }
+
+    public List<ProductSearchHit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = state.documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) state.totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> matchedTerms = new HashMap<>();
+
+            for (String term : terms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                scoreTerm(term, 1.0, documentCount, averageLength, termScores);
+                int expansions = 0;
+                for (String candidate : state.postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    scoreTerm(candidate, PREFIX_FACTOR, documentCount, averageLength, termScores);
+                }
+                termScores.forEach((id, score) -> {
+                    scores.merge(id, score, Double::sum);
+                    matchedTerms.merge(id, 1, Integer::sum);
+                });
+            }
+
+            // Les produits qui contiennent tous les termes de la requête passent devant
+            return scores.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue() * matchedTerms.get(entry.getKey()) / terms.size()))
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> {
+                        IndexedProduct document = state.documents.get(entry.getKey());
+                        return new ProductSearchHit(document.id(), document.name(), document.price(), entry.getValue());
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score BM25 d'un terme, en gardant pour chaque produit le meilleur terme trouvé (exact ou préfixe)
+    private void scoreTerm(String term, double factor, int documentCount, double averageLength, Map<Long, Double> termScores) {
+        Map<Long, Integer> postingList = state.postings.get(term);
+        if (postingList == null) {
+            return;
+        }
+        int documentFrequency = postingList.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        postingList.forEach((id, frequency) -> {
+            int length = state.documents.get(id).length();
+            double tf = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+            termScores.merge(id, factor * idf * tf, Math::max);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Le service reste disponible ; la recherche ne verra que les produits modifiés depuis le démarrage
+            log.error("Reconstruction de l'index de recherche impossible au démarrage", e);
+        }
+    }
+
+    /**
+     * Reconstruit l'index depuis la base : la plage d'ids est découpée entre plusieurs threads qui lisent
+     * et tokenisent en parallèle. L'ancien index reste interrogeable pendant la reconstruction.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexState rebuilt = new IndexState();
+        try {
+            Long minId = productRepo.findMinId();
+            Long maxId = productRepo.findMaxId();
+            if (minId != null) {
+                for (List<IndexedProduct> partition : readPartitions(minId, maxId)) {
+                    partition.forEach(rebuilt::add);
+                }
+            }
+        } catch (RuntimeException e) {
+            // En cas d'échec on garde l'index courant
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, IndexedProduct> change : pendingChanges) {
+                rebuilt.remove(change.getKey());
+                if (change.getValue() != null) {
+                    rebuilt.add(change.getValue());
+                }
+            }
+            state = rebuilt;
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche reconstruit : {} produits en {} ms", rebuilt.documents.size(), System.currentTimeMillis() - start);
+    }
+
+    private List<List<IndexedProduct>> readPartitions(long minId, long maxId) {
+        int threads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        long rangeSize = Math.max(REBUILD_CHUNK_SIZE, (maxId - minId + threads) / threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<IndexedProduct>>> futures = new ArrayList<>();
+            for (long from = minId - 1; from < maxId; from += rangeSize) {
+                long afterId = from;
+                long toId = Math.min(maxId, from + rangeSize);
+                futures.add(executor.submit(() -> readRange(afterId, toId)));
+            }
+            List<List<IndexedProduct>> partitions = new ArrayList<>();
+            for (Future<List<IndexedProduct>> future : futures) {
+                partitions.add(future.get());
+            }
+            return partitions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstruction de l'index interrompue", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Reconstruction de l'index impossible", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<IndexedProduct> readRange(long afterId, long toId) {
+        List<IndexedProduct> documents = new ArrayList<>();
+        List<ProductSearchView> chunk;
+        do {
+            chunk = productRepo.findSearchViews(afterId, toId, Limit.of(REBUILD_CHUNK_SIZE));
+            for (ProductSearchView view : chunk) {
+                documents.add(IndexedProduct.of(view.getId(), view.getName(), view.getDescription(), view.getPrice()));
+                afterId = view.getId();
+            }
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        return documents;
+    }
+
+    /**
+     * Découpe un texte en termes normalisés : minuscules, accents et ligatures supprimés, mots vides retirés.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = text.toLowerCase(Locale.ROOT).replace("œ", "oe").replace("æ", "ae");
+        folded = DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if ((token.length() > 1 || (token.length() == 1 && Character.isDigit(token.charAt(0)))) && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedProduct(Long id, String name, BigDecimal price, Map<String, Integer> terms, int length) {
+
+        static IndexedProduct of(Long id, String name, String description, BigDecimal price) {
+            Map<String, Integer> terms = new HashMap<>();
+            int length = 0;
+            for (String token : tokenize(name)) {
+                terms.merge(token, NAME_WEIGHT, Integer::sum);
+                length += NAME_WEIGHT;
+            }
+            for (String token : tokenize(description)) {
+                terms.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+                length += DESCRIPTION_WEIGHT;
+            }
+            return new IndexedProduct(id, name, price, terms, length);
+        }
+    }
+
+    // Structures de l'index, protégées par le verrou de ProductSearchIndex
+    private static class IndexState {
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, IndexedProduct> documents = new HashMap<>();
+        private long totalLength;
+
+        void add(IndexedProduct document) {
+            documents.put(document.id(), document);
+            totalLength += document.length();
+            document.terms().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(), frequency));
+        }
+
+        void remove(Long id) {
+            IndexedProduct document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            for (String term : document.terms().keySet()) {
+                Map<Long, Integer> postingList = postings.get(term);
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -1,47 +1,558 @@
 package com.ff.products_service.service;
 
+import com.ff.products_service.config.CacheConfig;
+import com.ff.products_service.dto.ImageResponseDTO;
+import com.ff.products_service.dto.ProductCardDTO;
+import com.ff.products_service.dto.ProductCardPageResponse;
+import com.ff.products_service.dto.ProductFieldSet;
+import com.ff.products_service.dto.ProductFieldsPageResponse;
+import com.ff.products_service.dto.ProductFieldsView;
+import com.ff.products_service.dto.ProductFilter;
+import com.ff.products_service.dto.ProductPageResponse;
+import com.ff.products_service.dto.ProductStockSnapshot;
+import com.ff.products_service.dto.ProductStockView;
+import com.ff.products_service.dto.ProductVersionView;
+import com.ff.products_service.dto.StockReservationRequest;
+import com.ff.products_service.dto.UpdateProductWithImagesRequest;
+import com.ff.products_service.entity.Image;
 import com.ff.products_service.entity.Product;
+import com.ff.products_service.event.ProductChangedEvent;
+import com.ff.products_service.event.ProductStockChangedEvent;
+import com.ff.products_service.repository.ImageRepository;
 import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.repository.ProductSpecifications;
+import com.ff.products_service.utils.CursorUtils;
+import com.ff.products_service.utils.InsufficientStockException;
+import com.ff.products_service.utils.ResourceNotFoundException;
+import com.ff.products_service.utils.VersionConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepo;
-    public ProductService(ProductRepository productRepo) {
+    private final ImageRepository imageRepo;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.catalog.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${product.catalog.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${product.stock.max-bulk-ids:500}")
+    private int maxBulkStockIds;
+
+    @Value("${product.delete.max-bulk-ids:1000}")
+    private int maxBulkDeleteIds;
+
+    @Value("${product.stock.adjust-max-attempts:5}")
+    private int stockAdjustMaxAttempts;
+
+    public ProductService(ProductRepository productRepo, ImageRepository imageRepo, CacheManager cacheManager,
+                          ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
         this.productRepo = productRepo;
+        this.imageRepo = imageRepo;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> findAll() {
-        return productRepo.findAll();
+        return productRepo.findAllWithImages();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", condition = CacheConfig.OUTSIDE_WRITE_TRANSACTION, unless = "#result == null")
     public Product findById(Long id) {
-        return productRepo.findById(id).orElse(null);
+        return productRepo.findWithImagesById(id).orElse(null);
+    }
+
+    public ProductVersionView findVersion(Long id) {
+        return productRepo.findVersionById(id).orElse(null);
+    }
+
+    public Long findCurrentVersion(Long id) {
+        return productRepo.findVersionById(id).map(ProductVersionView::getVersion).orElse(null);
+    }
+
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requestedSize, maxPageSize);
+    }
+
+    /**
+     * Lit au plus {@code size} produits dont l'id est strictement supérieur à {@code afterId},
+     * images comprises, en deux requêtes quelle que soit la taille de la page.
+     */
+    @Transactional(readOnly = true)
+    public List<Product> findPageAfter(Long afterId, int size) {
+        List<Long> ids = productRepo.findIdsAfter(afterId == null ? 0L : afterId, Limit.of(size));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepo.findWithImagesByIdInOrderByIdAsc(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageResponse findPage(String cursor, Integer requestedSize) {
+        int size = resolvePageSize(requestedSize);
+        // On lit un élément de plus pour savoir s'il existe une page suivante sans requête COUNT
+        List<Product> products = findPageAfter(CursorUtils.decode(cursor), size + 1);
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = CursorUtils.encode(products.get(size - 1).getId());
+        }
+        return new ProductPageResponse(products, nextCursor, size);
+    }
+
+    /**
+     * Page de vignettes (id, nom, prix, stock, image principale) lue par projection en une seule requête,
+     * sans matérialiser les entités ni les autres images.
+     */
+    @Transactional(readOnly = true)
+    public ProductCardPageResponse findCardPage(String cursor, Integer requestedSize) {
+        int size = resolvePageSize(requestedSize);
+        Long afterId = CursorUtils.decode(cursor);
+        List<ProductCardDTO> cards = productRepo.findCardsAfter(afterId == null ? 0L : afterId, Limit.of(size + 1));
+        String nextCursor = null;
+        if (cards.size() > size) {
+            cards = cards.subList(0, size);
+            nextCursor = CursorUtils.encode(cards.get(size - 1).getId());
+        }
+        return new ProductCardPageResponse(cards, nextCursor, size);
+    }
+
+    /**
+     * Produit réduit aux champs demandés : une requête de projection sur les colonnes, plus une pour les images
+     * si elles sont demandées. La version et la date de modification sont toujours lues pour l'ETag.
+     */
+    @Transactional(readOnly = true)
+    public ProductFieldsView findFieldsById(Long id, ProductFieldSet fields) {
+        List<String> attributes = new ArrayList<>(fields.attributes());
+        for (ProductFieldSet.Field field : List.of(ProductFieldSet.Field.VERSION, ProductFieldSet.Field.UPDATED_AT)) {
+            if (!fields.contains(field)) {
+                attributes.add(field.attribute());
+            }
+        }
+        List<Map<String, Object>> rows = productRepo.findAttributes(ProductSpecifications.idEquals(id), Sort.unsorted(), attributes, 1);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> row = rows.get(0);
+        Long version = (Long) row.get(ProductFieldSet.Field.VERSION.attribute());
+        Instant updatedAt = (Instant) row.get(ProductFieldSet.Field.UPDATED_AT.attribute());
+        row.keySet().retainAll(fields.attributes());
+        attachImages(rows, fields);
+        return new ProductFieldsView(row, version, updatedAt);
+    }
+
+    /** Page de produits réduits aux champs demandés, paginée comme {@link #findPage(String, Integer)}. */
+    @Transactional(readOnly = true)
+    public ProductFieldsPageResponse findFieldsPage(String cursor, Integer requestedSize, ProductFieldSet fields) {
+        int size = resolvePageSize(requestedSize);
+        Long afterId = CursorUtils.decode(cursor);
+        List<Map<String, Object>> rows = productRepo.findAttributes(ProductSpecifications.idAfter(afterId == null ? 0L : afterId),
+                Sort.by("id"), fields.attributes(), size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = CursorUtils.encode((Long) rows.get(size - 1).get(ProductFieldSet.Field.ID.attribute()));
+        }
+        attachImages(rows, fields);
+        return new ProductFieldsPageResponse(rows, nextCursor, size);
+    }
+
+    // Images des produits de la page en une requête, uniquement si le champ images est demandé
+    private void attachImages(List<Map<String, Object>> rows, ProductFieldSet fields) {
+        if (!fields.includesImages() || rows.isEmpty()) {
+            return;
+        }
+        Map<Long, List<ImageResponseDTO>> imagesByProduct = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            imagesByProduct.put((Long) row.get(ProductFieldSet.Field.ID.attribute()), new ArrayList<>());
+        }
+        for (Image image : imageRepo.findByProductIdIn(imagesByProduct.keySet())) {
+            ImageResponseDTO dto = new ImageResponseDTO();
+            dto.setId(image.getId());
+            dto.setUrl(image.getUrl());
+            dto.setTitle(image.getTitle());
+            dto.setMain(image.isMain());
+            imagesByProduct.get(image.getProduct().getId()).add(dto);
+        }
+        for (Map<String, Object> row : rows) {
+            row.put(ProductFieldSet.Field.IMAGES.attribute(), imagesByProduct.get((Long) row.get(ProductFieldSet.Field.ID.attribute())));
+        }
+    }
+
+    /**
+     * Page du catalogue filtré et trié, paginée par curseur keyset (valeur triée + id) :
+     * une requête sur les ids (servie par les index de Product) puis une requête produits + images.
+     */
+    @Transactional(readOnly = true)
+    public ProductPageResponse findFiltered(ProductFilter filter, String cursor, Integer requestedSize) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("Le prix minimum doit être inférieur ou égal au prix maximum.");
+        }
+        int size = resolvePageSize(requestedSize);
+        ProductFilter.SortField sort = filter.getSort();
+        Specification<Product> spec = ProductSpecifications.matching(filter);
+        CursorUtils.Keyset after = CursorUtils.decode(cursor, sort.attribute());
+        if (after != null) {
+            spec = spec.and(ProductSpecifications.after(sort, filter.getDirection(), after.lastValue(), after.lastId()));
+        }
+
+        List<Long> ids = productRepo.findIds(spec, filter.toSort(), size + 1);
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+        List<Product> products = findWithImagesInOrder(ids);
+        String nextCursor = null;
+        if (hasMore && !products.isEmpty()) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = CursorUtils.encode(sort.attribute(), last.getId(), sort.cursorValue(last));
+        }
+        return new ProductPageResponse(products, nextCursor, size);
+    }
+
+    // Produits + images en une requête, remis dans l'ordre des ids
+    private List<Product> findWithImagesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepo.findWithImagesByIdInOrderByIdAsc(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#result.id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_STOCK, key = "#result.id")
+    })
     public Product create(Product product) {
-        return productRepo.save(product);
+        ProductChangedEvent.Type type = product.getId() == null ? ProductChangedEvent.Type.CREATED : ProductChangedEvent.Type.UPDATED;
+        // Rend le produit toujours modifié : sa version change aussi quand seules ses images changent
+        product.setUpdatedAt(Instant.now());
+        Product saved = productRepo.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(type, saved.getId(), saved));
+        return saved;
     }
 
+    /**
+     * Enregistre de nouveaux produits, images comprises (cascade) : les INSERT partent en batch JDBC au flush.
+     */
+    @Transactional
+    public List<Product> createAll(List<Product> products) {
+        Instant now = Instant.now();
+        products.forEach(product -> product.setUpdatedAt(now));
+        List<Product> saved = productRepo.saveAll(products);
+        for (Product product : saved) {
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, product.getId(), product));
+        }
+        return saved;
+    }
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_STOCK, key = "#id")
+    })
     public Product update(Long id, Product product) {
         Product oldProduct = productRepo.findById(id).orElse(null);
         if (oldProduct == null) return null;
+        checkVersion(id, product.getVersion(), oldProduct.getVersion());
         oldProduct.setName(product.getName());
         oldProduct.setDescription(product.getDescription());
         oldProduct.setPrice(product.getPrice());
         oldProduct.setStock(product.getStock());
-        return productRepo.save(oldProduct);
+        oldProduct.setUpdatedAt(Instant.now());
+        Product saved = productRepo.save(oldProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id, saved));
+        return saved;
+    }
+
+    /**
+     * Met à jour un produit et réconcilie ses images avec la requête. Les images sont lues une seule fois avec le produit
+     * puis comparées en mémoire ; suppressions (orphanRemoval), ajouts (cascade) et modifications partent en batch JDBC
+     * au flush : le nombre d'allers-retours ne dépend pas du nombre d'images.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_STOCK, key = "#id")
+    })
+    public Product updateWithImages(Long id, UpdateProductWithImagesRequest request) {
+        Product product = productRepo.findWithImagesById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
+        // Le client a lu une version périmée : refus immédiat, sans écrire. Une écriture concurrente
+        // entre cette lecture et le flush est détectée par @Version (ObjectOptimisticLockingFailureException).
+        checkVersion(id, request.getVersion(), product.getVersion());
+
+        Map<Long, Image> existingImages = new HashMap<>();
+        for (Image image : product.getImages()) {
+            existingImages.put(image.getId(), image);
+        }
+
+        Set<Long> imageIdsToDelete = new HashSet<>();
+        List<Image> newImages = new ArrayList<>();
+        for (UpdateProductWithImagesRequest.ImageRequest imageReq : request.getImages()) {
+            Long imageId = imageReq.getId();
+            // Une image d'un autre produit est traitée comme inexistante
+            if (imageId != null && !existingImages.containsKey(imageId)) {
+                throw new ResourceNotFoundException("Image not found with id " + imageId);
+            }
+            if (imageId != null) {
+                checkVersion(id, imageReq.getVersion(), existingImages.get(imageId).getVersion(), product.getVersion());
+            }
+            if (imageReq.getToDelete()) {
+                if (imageId != null) {
+                    imageIdsToDelete.add(imageId);
+                }
+                continue;
+            }
+            if (imageId == null) {
+                newImages.add(Image.builder()
+                        .url(imageReq.getUrl())
+                        .title(imageReq.getTitle())
+                        .main(imageReq.getMain())
+                        .product(product)
+                        .build());
+            } else {
+                Image existingImage = existingImages.get(imageId);
+                existingImage.setUrl(imageReq.getUrl());
+                existingImage.setTitle(imageReq.getTitle());
+                existingImage.setMain(imageReq.getMain());
+            }
+        }
+        product.getImages().removeIf(image -> imageIdsToDelete.contains(image.getId()));
+        product.getImages().addAll(newImages);
+
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setStock(request.getStock());
+        product.setUpdatedAt(Instant.now());
+        // Flush immédiat : un conflit @Version remonte d'ici (et non du commit), et l'événement porte la nouvelle version
+        Product saved = productRepo.saveAndFlush(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id, saved));
+        return saved;
+    }
+
+    /**
+     * Supprime un produit et ses images. Renvoie false si le produit n'existe pas.
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return !deleteAll(List.of(id)).isEmpty();
+    }
+
+    /**
+     * Supprime des produits et leurs images en deux DELETE groupés, sans charger les entités :
+     * trois requêtes quel que soit le nombre de produits. Renvoie les ids effectivement supprimés.
+     */
+    @Transactional
+    public List<Long> deleteAll(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        if (ids.size() > maxBulkDeleteIds) {
+            throw new IllegalArgumentException("Trop de produits à supprimer (maximum " + maxBulkDeleteIds + ").");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> existingIds = productRepo.findIdsByIdIn(ids);
+        if (existingIds.isEmpty()) {
+            return existingIds;
+        }
+        imageRepo.deleteByProductIdIn(existingIds);
+        productRepo.deleteByIdIn(existingIds);
+        evictProducts(existingIds);
+        for (Long id : existingIds) {
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id, null));
+        }
+        return existingIds;
+    }
+
+    // Stock, version et date de modification lus ensemble et mis en cache : l'ETag du stock ne demande aucune requête de plus
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_STOCK, key = "#productId", condition = CacheConfig.OUTSIDE_WRITE_TRANSACTION, unless = "#result == null")
+    public ProductStockSnapshot getStockSnapshot(Long productId) {
+        return productRepo.findStockSnapshotById(productId).orElse(null);
+    }
+
+    /**
+     * Réserve le stock de plusieurs produits, tout ou rien. Chaque ligne est un UPDATE conditionnel
+     * (stock >= quantité) : pas de lecture préalable ni de verrou applicatif, et pas de survente.
+     * Les produits sont traités par id croissant pour éviter les interblocages entre réservations.
+     */
+    @Transactional
+    public Map<Long, Integer> reserveStock(List<StockReservationRequest.Item> items) {
+        Map<Long, Integer> quantities = sumQuantitiesByProduct(items);
+        Instant now = Instant.now();
+        quantities.forEach((productId, quantity) -> {
+            if (productRepo.reserveStock(productId, quantity, now) == 0) {
+                if (productRepo.findStockById(productId).isEmpty()) {
+                    throw new ResourceNotFoundException("Product not found with id " + productId);
+                }
+                throw new InsufficientStockException("Stock insuffisant pour le produit " + productId);
+            }
+        });
+        evictProducts(quantities.keySet());
+        return publishStockChanged(quantities.keySet());
+    }
+
+    /**
+     * Ajustement relatif du stock par lecture-modification-écriture protégée par @Version. L'opération étant
+     * commutative, un conflit est rejoué dans une nouvelle transaction (au plus {@code product.stock.adjust-max-attempts}
+     * tentatives, avec une courte attente aléatoire) au lieu d'être renvoyé au client.
+     */
+    public Map<Long, Integer> adjustStock(Long id, int delta) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyStockAdjustment(id, delta));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= stockAdjustMaxAttempts) {
+                    throw new VersionConflictException(id, findCurrentVersion(id));
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new VersionConflictException(id, findCurrentVersion(id));
+                }
+            }
+        }
+    }
+
+    private Map<Long, Integer> applyStockAdjustment(Long id, int delta) {
+        Product product = productRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id " + id));
+        int stock = product.getStock() + delta;
+        if (stock < 0) {
+            throw new InsufficientStockException("Stock insuffisant pour le produit " + id);
+        }
+        product.setStock(stock);
+        product.setUpdatedAt(Instant.now());
+        // Flush immédiat : @Version incrémentée (ou conflit détecté) avant de publier la version écrite
+        productRepo.saveAndFlush(product);
+        evictProducts(List.of(id));
+        eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(
+                new ProductStockChangedEvent.Stock(id, stock, product.getVersion()))));
+        return Map.of(id, stock);
+    }
+
+    @Transactional
+    public Map<Long, Integer> releaseStock(List<StockReservationRequest.Item> items) {
+        Map<Long, Integer> quantities = sumQuantitiesByProduct(items);
+        Instant now = Instant.now();
+        quantities.forEach((productId, quantity) -> {
+            if (productRepo.releaseStock(productId, quantity, now) == 0) {
+                throw new ResourceNotFoundException("Product not found with id " + productId);
+            }
+        });
+        evictProducts(quantities.keySet());
+        return publishStockChanged(quantities.keySet());
+    }
+
+    // Stock et version écrits par les UPDATE, relus en une requête : la version ordonne l'événement côté consommateurs
+    private Map<Long, Integer> publishStockChanged(Collection<Long> productIds) {
+        Map<Long, Integer> stocks = new LinkedHashMap<>();
+        List<ProductStockChangedEvent.Stock> changes = new ArrayList<>(productIds.size());
+        for (ProductStockView view : productRepo.findStockByIdIn(productIds)) {
+            stocks.put(view.getId(), view.getStock());
+            changes.add(new ProductStockChangedEvent.Stock(view.getId(), view.getStock(), view.getVersion()));
+        }
+        eventPublisher.publishEvent(new ProductStockChangedEvent(changes));
+        return stocks;
+    }
+
+    // Limite vérifiée avant le premier UPDATE : une demande trop grosse est refusée sans écriture à annuler
+    private Map<Long, Integer> sumQuantitiesByProduct(List<StockReservationRequest.Item> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationRequest.Item item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (quantities.size() > maxBulkStockIds) {
+            throw new IllegalArgumentException("Trop de produits demandés (maximum " + maxBulkStockIds + ").");
+        }
+        return quantities;
+    }
+
+    // Version attendue par le client (null : pas de vérification) ; le conflit renvoie la version courante du produit
+    private static void checkVersion(Long productId, Long expected, Long actual) {
+        checkVersion(productId, expected, actual, actual);
+    }
+
+    private static void checkVersion(Long productId, Long expected, Long actual, Long currentProductVersion) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new VersionConflictException(productId, currentProductVersion);
+        }
     }
 
-    public void delete(Long id) {
-        productRepo.deleteById(id);
+    private void evictProducts(Collection<Long> productIds) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        Cache stocks = cacheManager.getCache(CacheConfig.PRODUCT_STOCK);
+        for (Long productId : productIds) {
+            products.evict(productId);
+            stocks.evict(productId);
+        }
     }
 
-    public int getStockByProductId(Long productId) {
-        Product product = productRepo.findById(productId).orElse(null);
-        return product != null ? product.getStock() : -1;
+    /**
+     * Stock de plusieurs produits en une requête (id, stock). Les ids inconnus sont absents du résultat.
+     */
+    public Map<Long, Integer> getStockByProductIds(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        if (ids.size() > maxBulkStockIds) {
+            throw new IllegalArgumentException("Trop de produits demandés (maximum " + maxBulkStockIds + ").");
+        }
+        Map<Long, Integer> stocks = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return stocks;
+        }
+        for (ProductStockView view : productRepo.findStockByIdIn(ids)) {
+            stocks.put(view.getId(), view.getStock());
+        }
+        return stocks;
     }
-}
\ No newline at end of file
+}
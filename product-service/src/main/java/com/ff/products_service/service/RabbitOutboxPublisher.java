@@ -0,0 +1,56 @@
+package com.ff.products_service.service;
+
+import com.ff.products_service.entity.OutboxEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Publie les événements sur l'exchange topic des produits (routing key product.created, product.stock_changed, ...).
+ * Le lot est envoyé sur un même canal puis confirmé en une fois (publisher confirms).
+ */
+@Component
+public class RabbitOutboxPublisher implements OutboxPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${product.outbox.exchange:product.events}")
+    private String exchange;
+
+    @Value("${product.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public RabbitOutboxPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : events) {
+                operations.send(exchange, "product." + event.getEventType().toLowerCase(Locale.ROOT), toMessage(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+
+    private static Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(String.valueOf(event.getId()));
+        properties.setType(event.getEventType());
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setTimestamp(Date.from(event.getCreatedAt()));
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
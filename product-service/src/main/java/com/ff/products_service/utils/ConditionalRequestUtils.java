@@ -0,0 +1,86 @@
+package com.ff.products_service.utils;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * ETags forts et dates de modification des ressources produit.
+ * L'ETag ne dépend que de l'id et de la version : il peut être vérifié sans charger le produit.
+ */
+public class ConditionalRequestUtils {
+
+    private static final String GZIP_SUFFIX = "-gz";
+
+    public static String productETag(Long id, Long version) {
+        return "\"p" + id + "-v" + (version == null ? 0 : version) + "\"";
+    }
+
+    // Représentation partielle (fields=) : l'ETag distingue chaque jeu de champs pour une même version
+    public static String productETag(Long id, Long version, String variant) {
+        return "\"p" + id + "-v" + (version == null ? 0 : version) + "-f" + variant + "\"";
+    }
+
+    public static String stockETag(Long id, Long version) {
+        return "\"s" + id + "-v" + (version == null ? 0 : version) + "\"";
+    }
+
+    // Représentation gzip : ses octets diffèrent de la représentation identité, son ETag fort aussi
+    public static String gzipETag(String eTag) {
+        if (eTag.endsWith(GZIP_SUFFIX + "\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * Vrai si Accept-Encoding autorise gzip : "gzip" (ou "x-gzip"), à défaut "*", avec une qualité non nulle.
+     * "gzip;q=0" refuse explicitement gzip, même si "*" est accepté.
+     */
+    public static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        Double accepted = gzip != null ? gzip : any;
+        return accepted != null && accepted > 0;
+    }
+
+    // Paramètre q d'un codage (1 par défaut, 0 si illisible)
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    public static long lastModified(Instant updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+
+    // Sans en-tête conditionnel, inutile de lire la version avant la ressource elle-même
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ff.products_service.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvUtils {
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule, champs entre guillemets doubles, "" pour un guillemet).
+     * Les champs sur plusieurs lignes ne sont pas supportés.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non fermé.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ff.products_service.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encode / décode le curseur opaque utilisé pour la pagination keyset du catalogue.
+ * Le curseur porte le dernier id renvoyé ; les clients ne doivent pas l'interpréter.
+ */
+public class CursorUtils {
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Position dans une liste triée sur un autre champ que l'id : dernière valeur triée et dernier id (départage).
+     */
+    public record Keyset(Long lastId, String lastValue) {
+    }
+
+    public static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException et erreurs Base64 sont des IllegalArgumentException
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+    }
+
+    // Le curseur porte la clé du tri : un curseur obtenu avec un autre tri est refusé
+    public static String encode(String sortKey, Long lastId, String lastValue) {
+        String raw = sortKey + ":" + lastId + ":" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Keyset decode(String cursor, String sortKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sortKey)) {
+                throw new IllegalArgumentException("Curseur de pagination invalide.");
+            }
+            return new Keyset(Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide.");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.ff.products_service.utils;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
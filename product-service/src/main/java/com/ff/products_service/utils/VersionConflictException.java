@@ -0,0 +1,16 @@
+package com.ff.products_service.utils;
+
+import lombok.Getter;
+
+// Modification concurrente détectée : le client doit relire le produit (version courante fournie) avant de réessayer
+@Getter
+public class VersionConflictException extends RuntimeException {
+    private final Long productId;
+    private final Long currentVersion;
+
+    public VersionConflictException(Long productId, Long currentVersion) {
+        super("Le produit " + productId + " a été modifié entre-temps (version courante : " + currentVersion + ").");
+        this.productId = productId;
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,113 @@
+-- Migration manuelle (SQL Server) d'une base creee avec les ids IDENTITY vers les ids par sequence
+-- (product_seq / image_seq) et les colonnes version (@Version) de Product et Image.
+-- ddl-auto=update ne retire pas IDENTITY, n'initialise pas les sequences au-dela des ids existants
+-- et ne rend pas NOT NULL une colonne deja creee : ce script le fait, une seule fois, service arrete.
+-- Il peut etre rejoue sans effet sur une base deja migree (sqlcmd -i ... ou SSMS, lots separes par GO).
+
+SET XACT_ABORT ON;
+GO
+
+BEGIN TRANSACTION;
+GO
+
+-- 1. Retrait de IDENTITY : chaque table est recopiee dans une table de meme structure sans IDENTITY
+--    (SELECT INTO sur une UNION ne reporte pas la propriete IDENTITY), puis renommee.
+IF COLUMNPROPERTY(OBJECT_ID('dbo.image'), 'id', 'IsIdentity') = 1
+   OR COLUMNPROPERTY(OBJECT_ID('dbo.product'), 'id', 'IsIdentity') = 1
+BEGIN
+    -- Cle etrangere image -> product (nom genere par Hibernate), recreee a l'etape 2
+    DECLARE @fk NVARCHAR(300);
+    SELECT @fk = N'ALTER TABLE dbo.image DROP CONSTRAINT ' + QUOTENAME(name) FROM sys.foreign_keys
+    WHERE parent_object_id = OBJECT_ID('dbo.image') AND referenced_object_id = OBJECT_ID('dbo.product');
+    IF @fk IS NOT NULL
+        EXEC sp_executesql @fk;
+END
+GO
+
+IF COLUMNPROPERTY(OBJECT_ID('dbo.product'), 'id', 'IsIdentity') = 1
+BEGIN
+    EXEC ('SELECT * INTO dbo.product_migration FROM dbo.product WHERE 1 = 0
+           UNION ALL SELECT * FROM dbo.product WHERE 1 = 0');
+    EXEC ('ALTER TABLE dbo.product_migration ALTER COLUMN id BIGINT NOT NULL');
+    EXEC ('INSERT INTO dbo.product_migration SELECT * FROM dbo.product');
+    EXEC ('DROP TABLE dbo.product');
+    EXEC sp_rename 'dbo.product_migration', 'product';
+    EXEC ('ALTER TABLE dbo.product ADD CONSTRAINT pk_product PRIMARY KEY (id)');
+    EXEC ('CREATE INDEX ix_product_price_id ON dbo.product (price, id)');
+    EXEC ('CREATE INDEX ix_product_name_id ON dbo.product (name, id)');
+    EXEC ('CREATE INDEX ix_product_stock_price ON dbo.product (stock, price)');
+END
+GO
+
+IF COLUMNPROPERTY(OBJECT_ID('dbo.image'), 'id', 'IsIdentity') = 1
+BEGIN
+    EXEC ('SELECT * INTO dbo.image_migration FROM dbo.image WHERE 1 = 0
+           UNION ALL SELECT * FROM dbo.image WHERE 1 = 0');
+    EXEC ('ALTER TABLE dbo.image_migration ALTER COLUMN id BIGINT NOT NULL');
+    EXEC ('INSERT INTO dbo.image_migration SELECT * FROM dbo.image');
+    EXEC ('DROP TABLE dbo.image');
+    EXEC sp_rename 'dbo.image_migration', 'image';
+    EXEC ('ALTER TABLE dbo.image ADD CONSTRAINT pk_image PRIMARY KEY (id)');
+    EXEC ('CREATE INDEX ix_image_product_main ON dbo.image (product_id, main)');
+END
+GO
+
+-- 2. Cle etrangere image -> product
+IF NOT EXISTS (SELECT 1 FROM sys.foreign_keys
+               WHERE parent_object_id = OBJECT_ID('dbo.image') AND referenced_object_id = OBJECT_ID('dbo.product'))
+    EXEC ('ALTER TABLE dbo.image ADD CONSTRAINT fk_image_product FOREIGN KEY (product_id) REFERENCES dbo.product (id)');
+GO
+
+-- 3. Colonnes version : ajoutees si absentes, lignes existantes a 0, puis NOT NULL DEFAULT 0.
+--    Une version NULL reste NULL apres "version = version + 1" (reserveStock / releaseStock).
+IF COL_LENGTH('dbo.product', 'version') IS NULL
+    EXEC ('ALTER TABLE dbo.product ADD version BIGINT NULL');
+IF COL_LENGTH('dbo.image', 'version') IS NULL
+    EXEC ('ALTER TABLE dbo.image ADD version BIGINT NULL');
+GO
+
+-- ALTER COLUMN est refuse une fois la contrainte DEFAULT posee : uniquement si la colonne accepte encore NULL
+IF COLUMNPROPERTY(OBJECT_ID('dbo.product'), 'version', 'AllowsNull') = 1
+BEGIN
+    EXEC ('UPDATE dbo.product SET version = 0 WHERE version IS NULL');
+    EXEC ('ALTER TABLE dbo.product ALTER COLUMN version BIGINT NOT NULL');
+END
+IF COLUMNPROPERTY(OBJECT_ID('dbo.image'), 'version', 'AllowsNull') = 1
+BEGIN
+    EXEC ('UPDATE dbo.image SET version = 0 WHERE version IS NULL');
+    EXEC ('ALTER TABLE dbo.image ALTER COLUMN version BIGINT NOT NULL');
+END
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints
+               WHERE parent_object_id = OBJECT_ID('dbo.product') AND COL_NAME(parent_object_id, parent_column_id) = 'version')
+    EXEC ('ALTER TABLE dbo.product ADD CONSTRAINT df_product_version DEFAULT 0 FOR version');
+IF NOT EXISTS (SELECT 1 FROM sys.default_constraints
+               WHERE parent_object_id = OBJECT_ID('dbo.image') AND COL_NAME(parent_object_id, parent_column_id) = 'version')
+    EXEC ('ALTER TABLE dbo.image ADD CONSTRAINT df_image_version DEFAULT 0 FOR version');
+GO
+
+-- 4. Sequences au-dela du plus grand id. Avec allocationSize = 50 (optimiseur pooled), Hibernate peut
+--    attribuer jusqu'a 49 ids sous la valeur lue : la sequence repart donc de max(id) + 50.
+DECLARE @next BIGINT, @sql NVARCHAR(200);
+
+SELECT @next = COALESCE(MAX(id), 0) + 50 FROM dbo.product;
+IF OBJECT_ID('dbo.product_seq', 'SO') IS NULL
+    SET @sql = N'CREATE SEQUENCE dbo.product_seq AS BIGINT START WITH ' + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+ELSE IF (SELECT CAST(current_value AS BIGINT) FROM sys.sequences WHERE object_id = OBJECT_ID('dbo.product_seq')) < @next
+    SET @sql = N'ALTER SEQUENCE dbo.product_seq RESTART WITH ' + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+IF @sql IS NOT NULL
+    EXEC sp_executesql @sql;
+
+SET @sql = NULL;
+SELECT @next = COALESCE(MAX(id), 0) + 50 FROM dbo.image;
+IF OBJECT_ID('dbo.image_seq', 'SO') IS NULL
+    SET @sql = N'CREATE SEQUENCE dbo.image_seq AS BIGINT START WITH ' + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+ELSE IF (SELECT CAST(current_value AS BIGINT) FROM sys.sequences WHERE object_id = OBJECT_ID('dbo.image_seq')) < @next
+    SET @sql = N'ALTER SEQUENCE dbo.image_seq RESTART WITH ' + CAST(@next AS NVARCHAR(20)) + N' INCREMENT BY 50';
+IF @sql IS NOT NULL
+    EXEC sp_executesql @sql;
+GO
+
+COMMIT TRANSACTION;
+GO
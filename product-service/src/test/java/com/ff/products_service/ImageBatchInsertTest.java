@@ -0,0 +1,89 @@
+package com.ff.products_service;
+
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ImageRepository;
+import com.ff.products_service.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare le nombre d'allers-retours SQL pour enregistrer un produit et 20 images :
+ * une insertion par image (comportement imposé par les ids IDENTITY) contre saveAll en batch JDBC.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageBatchInsertTest {
+
+    private static final int IMAGES = 20;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        imageRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void saveAll_shouldPersistImagesInFewRoundTrips() {
+        int perRow = persist(false);
+        int batched = persist(true);
+
+        log.debug("Produit + {} images : {} requêtes une par une, {} en batch", IMAGES, perRow, batched);
+        assertTrue(perRow >= IMAGES);
+        // séquence produit + INSERT produit + séquence image + INSERT images en batch
+        assertTrue(batched <= 4, "requêtes en batch : " + batched);
+        assertEquals(2 * IMAGES, imageRepository.count());
+    }
+
+    private int persist(boolean batched) {
+        SqlStatementCounter.reset();
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.save(Product.builder()
+                    .name("Canapé")
+                    .description("Canapé trois places")
+                    .price(BigDecimal.valueOf(899))
+                    .stock(4)
+                    .build());
+            List<Image> images = new ArrayList<>();
+            for (int i = 0; i < IMAGES; i++) {
+                images.add(Image.builder().url("http://img/" + i + ".jpg").title("vue " + i).main(i == 0).product(product).build());
+            }
+            if (batched) {
+                imageRepository.saveAll(images);
+            } else {
+                // Ancien chemin : chaque image part immédiatement en base, comme avec GenerationType.IDENTITY
+                for (Image image : images) {
+                    imageRepository.save(image);
+                    entityManager.flush();
+                }
+            }
+        });
+        return SqlStatementCounter.count();
+    }
+}
@@ -0,0 +1,188 @@
+package com.ff.products_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.dto.StockReservationRequest;
+import com.ff.products_service.entity.OutboxEvent;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.OutboxEventRepository;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.OutboxPublisher;
+import com.ff.products_service.service.OutboxRelay;
+import com.ff.products_service.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox transactionnelle : les événements ne sont enregistrés qu'avec l'écriture produit validée,
+ * puis relayés dans l'ordre vers un broker simulé en mémoire.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class InMemoryBrokerConfig {
+        @Bean
+        @Primary
+        InMemoryPublisher inMemoryPublisher() {
+            return new InMemoryPublisher();
+        }
+    }
+
+    static class InMemoryPublisher implements OutboxPublisher {
+        final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+        volatile boolean down;
+        volatile boolean publishedInTransaction;
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            publishedInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            if (down) {
+                throw new IllegalStateException("broker indisponible");
+            }
+            received.addAll(events);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryPublisher publisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        publisher.received.clear();
+        publisher.down = false;
+        publisher.publishedInTransaction = false;
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void relay_shouldPublishCatalogChangesInOrderOnce() throws Exception {
+        Product product = productService.create(newProduct("Lampe", 5));
+        productService.update(product.getId(), newProduct("Lampe LED", 5));
+        productService.reserveStock(List.of(new StockReservationRequest.Item(product.getId(), 2)));
+        productService.delete(product.getId());
+
+        assertEquals(4, outboxRelay.publishPending());
+        assertEquals(0, outboxRelay.publishPending());
+        assertEquals(0, outboxRepository.countByPublishedAtIsNull());
+
+        assertEquals(List.of("CREATED", "UPDATED", "STOCK_CHANGED", "DELETED"),
+                publisher.received.stream().map(OutboxEvent::getEventType).toList());
+        JsonNode updated = objectMapper.readTree(publisher.received.get(1).getPayload());
+        assertEquals("Lampe LED", updated.get("name").asText());
+        assertEquals(product.getId(), updated.get("productId").asLong());
+        // Version écrite par la mise à jour (et non celle lue avant le flush)
+        assertEquals(product.getVersion() + 1, updated.get("version").asLong());
+        // Le broker est appelé hors de toute transaction : aucun verrou tenu sur l'outbox pendant l'envoi
+        assertFalse(publisher.publishedInTransaction);
+        JsonNode stockChanged = objectMapper.readTree(publisher.received.get(2).getPayload());
+        assertEquals(3, stockChanged.get("stock").asInt());
+        // Version écrite par la réservation : ordonnée après celle de la mise à jour
+        assertEquals(product.getVersion() + 2, stockChanged.get("version").asLong());
+    }
+
+    @Test
+    void adjustStock_shouldRecordWrittenVersion() throws Exception {
+        Product product = productService.create(newProduct("Tabouret", 5));
+
+        productService.adjustStock(product.getId(), 3);
+
+        assertEquals(2, outboxRelay.publishPending());
+        JsonNode stockChanged = objectMapper.readTree(publisher.received.get(1).getPayload());
+        assertEquals(8, stockChanged.get("stock").asInt());
+        assertEquals(product.getVersion() + 1, stockChanged.get("version").asLong());
+    }
+
+    @Test
+    void rolledBackWrite_shouldNotRecordEvent() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            productService.create(newProduct("Fantôme", 1));
+            throw new IllegalStateException("annulation");
+        }));
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void failedPublish_shouldKeepEventsPendingForRetry() {
+        productService.create(newProduct("Table", 2));
+        publisher.down = true;
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.publishPending());
+        assertEquals(1, outboxRepository.countByPublishedAtIsNull());
+        // Lot libéré immédiatement : repris au passage suivant sans attendre la fin du bail
+        assertNull(outboxRepository.findAll().get(0).getLeaseToken());
+
+        publisher.down = false;
+        assertEquals(1, outboxRelay.publishPending());
+        assertEquals(1, publisher.received.size());
+    }
+
+    @Test
+    void bulkImportBatch_shouldRecordOneEventPerProduct() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            products.add(newProduct("Produit " + i, i));
+        }
+        SqlStatementCounter.reset();
+        productService.createAll(products);
+        int statements = SqlStatementCounter.count();
+
+        assertEquals(120, outboxRepository.countByPublishedAtIsNull());
+        // Un seul flush en fin de transaction : produits et lignes d'outbox insérés en batch, pas un INSERT par événement
+        assertTrue(statements < 20, "requêtes : " + statements);
+        assertEquals(100, outboxRelay.publishPending());
+        assertEquals(20, outboxRelay.publishPending());
+    }
+
+    private static Product newProduct(String name, int stock) {
+        return Product.builder()
+                .name(name)
+                .description("Description")
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .images(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ff.products_service;
+
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        product = productRepository.save(Product.builder()
+                .name("Chaise")
+                .description("Chaise de bureau")
+                .price(BigDecimal.valueOf(120))
+                .stock(7)
+                .images(new ArrayList<>())
+                .build());
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void findById_shouldHitDatabaseOnlyOnce() {
+        productService.findById(product.getId());
+        productService.findById(product.getId());
+        productService.getStockSnapshot(product.getId());
+        productService.getStockSnapshot(product.getId());
+
+        assertEquals(2, SqlStatementCounter.count());
+        double hits = meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count();
+        assertTrue(hits >= 1);
+    }
+
+    @Test
+    void update_shouldEvictCachedProduct() {
+        productService.findById(product.getId());
+
+        Product changes = Product.builder().name("Chaise pro").description("Nouvelle").price(BigDecimal.TEN).stock(3).build();
+        productService.update(product.getId(), changes);
+
+        Product reloaded = productService.findById(product.getId());
+        assertEquals("Chaise pro", reloaded.getName());
+        assertEquals(3, productService.getStockSnapshot(product.getId()).stock());
+    }
+
+    @Test
+    void delete_shouldEvictCachedProduct() {
+        productService.findById(product.getId());
+
+        productService.delete(product.getId());
+
+        assertNull(productService.findById(product.getId()));
+    }
+}
@@ -0,0 +1,210 @@
+package com.ff.products_service;
+
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ImageRepository;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductService;
+import com.ff.products_service.utils.VersionConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ADJUSTMENTS_PER_THREAD = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void updateProduct_shouldRejectStaleVersionWithCurrentVersion() throws Exception {
+        Product product = save("Bureau", 5);
+        Image image = product.getImages().get(0);
+        Long staleVersion = product.getVersion();
+        productService.update(product.getId(), Product.builder().name("Bureau v2").description("d").price(BigDecimal.ONE).stock(5).build());
+        Long currentVersion = productService.findCurrentVersion(product.getId());
+
+        mockMvc.perform(put("/api/products/modif/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(product.getId(), staleVersion, image, image.getVersion())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(currentVersion))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"p" + product.getId() + "-v" + currentVersion + "\""));
+
+        mockMvc.perform(put("/api/products/modif/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(product.getId(), currentVersion, image, image.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Bureau v3"));
+        assertEquals("Bureau v3", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateProduct_shouldReturnCurrentVersionWhenConflictIsDetectedAtFlush() throws Exception {
+        Product product = save("Armoire", 5);
+        Image image = product.getImages().get(0);
+        // Écriture concurrente validée entre la lecture du produit par la requête et son UPDATE
+        SqlStatementCounter.beforeNext("update product set", () -> runInOtherThread(() -> productService.update(product.getId(),
+                Product.builder().name("Armoire v2").description("d").price(BigDecimal.ONE).stock(5).build())));
+
+        mockMvc.perform(put("/api/products/modif/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(product.getId(), product.getVersion(), image, image.getVersion())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(product.getVersion() + 1))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"p" + product.getId() + "-v" + (product.getVersion() + 1) + "\""));
+        assertEquals("Armoire v2", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateProduct_shouldRejectStaleImageVersion() throws Exception {
+        Product product = save("Lampe", 5);
+        Image image = product.getImages().get(0);
+        image.setTitle("renommée");
+        imageRepository.save(image);
+
+        mockMvc.perform(put("/api/products/modif/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(product.getId(), null, image, image.getVersion())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void save_shouldFailWhenEntityWasModifiedConcurrently() {
+        Product product = save("Étagère", 5);
+        Product staleCopy = productRepository.findById(product.getId()).orElseThrow();
+        productService.update(product.getId(), Product.builder().name("Étagère v2").description("d").price(BigDecimal.ONE).stock(5).build());
+
+        staleCopy.setName("Écrase la v2");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productRepository.save(staleCopy));
+        assertEquals("Étagère v2", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void adjustStock_shouldNotLoseUpdatesUnderContention() throws Exception {
+        Long id = save("Chaise", 0).getId();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger exhausted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADJUSTMENTS_PER_THREAD; j++) {
+                    try {
+                        productService.adjustStock(id, 1);
+                        applied.incrementAndGet();
+                    } catch (VersionConflictException e) {
+                        exhausted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+
+        int total = THREADS * ADJUSTMENTS_PER_THREAD;
+        log.debug("{} ajustements concurrents en {} ms ({} abandonnés après toutes les tentatives)",
+                total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), exhausted.get());
+        assertEquals(total, applied.get() + exhausted.get());
+        assertEquals(applied.get(), productRepository.findStockById(id).orElseThrow());
+    }
+
+    @Test
+    void adjustStock_shouldRejectNegativeStock() throws Exception {
+        Long id = save("Tabouret", 2).getId();
+
+        mockMvc.perform(patch("/api/products/{id}/stock", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-3}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/api/products/{id}/stock", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"delta\":-2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data['" + id + "']").value(0));
+    }
+
+    private static void runInOtherThread(Runnable action) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(action).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String updateBody(Long id, Long version, Image image, Long imageVersion) {
+        return "{\"id\":" + id + (version == null ? "" : ",\"version\":" + version)
+                + ",\"name\":\"Bureau v3\",\"description\":\"d\",\"price\":12,\"stock\":2,\"images\":[{\"id\":" + image.getId()
+                + ",\"version\":" + imageVersion + ",\"url\":\"" + image.getUrl() + "\",\"title\":\"t\",\"main\":true,\"toDelete\":false}]}";
+    }
+
+    private Product save(String name, int stock) {
+        Product product = Product.builder()
+                .name(name)
+                .description(name)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .images(new ArrayList<>())
+                .build();
+        product.getImages().add(Image.builder().url("http://img/" + name + ".jpg").title(name).main(true).product(product).build());
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ff.products_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        // Prix répétés (10, 20, 30, 40) pour vérifier le départage par id entre deux pages
+        for (int i = 0; i < 20; i++) {
+            Product product = Product.builder()
+                    .name((i % 2 == 0 ? "Chaise " : "Table ") + i)
+                    .description("Description")
+                    .price(BigDecimal.valueOf(10L * (1 + i % 4)))
+                    .stock(i % 3 == 0 ? 0 : i)
+                    .images(new ArrayList<>())
+                    .build();
+            product.getImages().add(Image.builder().url("http://img/" + i).title("t").main(true).product(product).build());
+            products.add(product);
+        }
+        products.add(Product.builder().name("100% coton").description("d").price(BigDecimal.ONE).stock(1).images(new ArrayList<>()).build());
+        products.add(Product.builder().name("100 pièces").description("d").price(BigDecimal.ONE).stock(1).images(new ArrayList<>()).build());
+        productRepository.saveAll(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void filter_shouldPageThroughPriceRangeSortedByPriceDesc() throws Exception {
+        List<JsonNode> items = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/products/filter")
+                    .param("minPrice", "20").param("maxPrice", "40").param("inStock", "true")
+                    .param("sort", "price").param("direction", "desc").param("size", "3");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            SqlStatementCounter.reset();
+            JsonNode data = objectMapper.readTree(mockMvc.perform(request).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray()).get("data");
+            // ids filtrés puis produits + images
+            assertEquals(2, SqlStatementCounter.count());
+            data.get("items").forEach(items::add);
+            cursor = data.get("nextCursor").isNull() ? null : data.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        List<Product> expected = productRepository.findAll().stream()
+                .filter(p -> p.getStock() > 0 && p.getPrice().compareTo(BigDecimal.valueOf(20)) >= 0 && p.getPrice().compareTo(BigDecimal.valueOf(40)) <= 0)
+                .sorted((a, b) -> a.getPrice().compareTo(b.getPrice()) != 0 ? b.getPrice().compareTo(a.getPrice()) : b.getId().compareTo(a.getId()))
+                .toList();
+        assertEquals(expected.size(), items.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), items.get(i).get("id").asLong());
+            assertEquals(1, items.get(i).get("images").size());
+        }
+        assertEquals((expected.size() + 2) / 3, pages);
+    }
+
+    @Test
+    void filter_shouldMatchNamePrefixLiterally() throws Exception {
+        JsonNode data = filter("namePrefix", "100%");
+        assertEquals(1, data.get("items").size());
+        assertEquals("100% coton", data.get("items").get(0).get("name").asText());
+
+        data = filter("namePrefix", "Chaise");
+        assertEquals(10, data.get("items").size());
+    }
+
+    @Test
+    void filter_shouldSortByNameAscending() throws Exception {
+        JsonNode items = filter("sort", "name").get("items");
+        for (int i = 1; i < items.size(); i++) {
+            assertTrue(items.get(i - 1).get("name").asText().compareTo(items.get(i).get("name").asText()) <= 0);
+        }
+    }
+
+    @Test
+    void filter_shouldRejectInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/products/filter").param("sort", "stock")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/filter").param("direction", "up")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/filter").param("minPrice", "50").param("maxPrice", "10")).andExpect(status().isBadRequest());
+
+        String idCursor = filter("size", "1").get("nextCursor").asText();
+        mockMvc.perform(get("/api/products/filter").param("sort", "price").param("cursor", idCursor)).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode filter(String name, String value) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/products/filter").param(name, value))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray()).get("data");
+    }
+}
@@ -0,0 +1,111 @@
+package com.ff.products_service;
+
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ImageRepository;
+import com.ff.products_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @AfterEach
+    void tearDown() {
+        imageRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void importNdjson_shouldPersistValidRowsInBatchesAndReportInvalidOnes() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            body.append("{\"name\":\"Produit ").append(i).append("\",\"description\":\"Desc\",\"price\":10.5,\"stock\":3,")
+                    .append("\"images\":[{\"url\":\"http://img/").append(i).append(".jpg\",\"title\":\"t\",\"main\":true},")
+                    .append("{\"url\":\"http://img/").append(i).append("b.jpg\",\"title\":\"t\",\"main\":false}]}\n");
+        }
+        body.append("{\"name\":\"Sans image principale\",\"description\":\"Desc\",\"price\":1,\"stock\":1,\"images\":[]}\n");
+        body.append("\n");
+        body.append("{\"name\":\"\",\"description\":\"Desc\",\"stock\":1,\"images\":[{\"url\":\"u\",\"title\":\"t\",\"main\":true}]}\n");
+        body.append("{pas du json\n");
+
+        mockMvc.perform(post("/api/products/import").param("batchSize", "50")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(123))
+                .andExpect(jsonPath("$.data.imported").value(120))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andExpect(jsonPath("$.data.errors[0].line").value(121))
+                .andExpect(jsonPath("$.data.errors[0].message").value("Il doit y avoir une image principale."))
+                .andExpect(jsonPath("$.data.errors[1].line").value(123))
+                .andExpect(jsonPath("$.data.errors[1].message").value("name: Le Nom est obligatoire; price: Le prix est obligatoire"))
+                .andExpect(jsonPath("$.data.errors[2].line").value(124));
+
+        assertEquals(120, productRepository.count());
+        assertEquals(240, imageRepository.count());
+    }
+
+    @Test
+    void importCsv_shouldParseQuotedFieldsAndImages() throws Exception {
+        String csv = """
+                name,description,price,stock,images
+                "Chaise, ergonomique","Dossier ""mesh"" pro",199.90,4,http://img/c1.jpg|Face;http://img/c2.jpg|Dos
+                Table,Bois massif,abc,2,http://img/t.jpg|Face
+                Lampe,LED,25,10,
+                """;
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(3))
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3))
+                .andExpect(jsonPath("$.data.errors[1].message").value("Il doit y avoir une image principale."));
+
+        List<Product> products = productRepository.findAllWithImages();
+        assertEquals(1, products.size());
+        Product chaise = products.get(0);
+        assertEquals("Chaise, ergonomique", chaise.getName());
+        assertEquals("Dossier \"mesh\" pro", chaise.getDescription());
+        chaise.getImages().sort(Comparator.comparing(image -> image.getUrl()));
+        assertTrue(chaise.getImages().get(0).isMain());
+        assertEquals("Dos", chaise.getImages().get(1).getTitle());
+    }
+
+    @Test
+    void importCsv_shouldRejectMissingColumns() throws Exception {
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content("name,price\nChaise,10\n"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, productRepository.count());
+    }
+}
@@ -0,0 +1,166 @@
+package com.ff.products_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ImageRepository;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductJsonSnapshotCache;
+import com.ff.products_service.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductJsonSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductJsonSnapshotCache snapshotCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .name("Chaise \"Éco\"")
+                .description("Chaise de bureau ".repeat(12))
+                .price(BigDecimal.valueOf(99.90))
+                .stock(4)
+                .images(new ArrayList<>())
+                .build();
+        for (int i = 0; i < 10; i++) {
+            product.getImages().add(Image.builder().url("http://img/chaise/" + i + ".jpg").title("vue " + i).main(i == 0).product(product).build());
+        }
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void getProductById_shouldServeSnapshotIdenticalToJackson() throws Exception {
+        double hitsBefore = hits();
+        JsonNode first = objectMapper.readTree(getProduct(null).getContentAsByteArray());
+        JsonNode second = objectMapper.readTree(getProduct(null).getContentAsByteArray());
+
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(productService.findById(product.getId())));
+        assertEquals(expected, first.get("data"));
+        assertEquals(expected, second.get("data"));
+        assertEquals("Product found", second.get("message").asText());
+        assertEquals(200, second.get("status").asInt());
+        assertTrue(second.hasNonNull("timestamp"));
+        assertTrue(hits() > hitsBefore);
+        assertTrue(snapshotCache.offHeapBytes() > 0);
+    }
+
+    @Test
+    void getProductById_shouldServePrecompressedGzip() throws Exception {
+        MockHttpServletResponse plain = getProduct(null);
+        MockHttpServletResponse gzip = getProduct("gzip, deflate");
+
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(gzip.getContentAsByteArray().length, gzip.getContentLength());
+        assertTrue(gzip.getContentAsByteArray().length < plain.getContentAsByteArray().length);
+        byte[] inflated;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            inflated = in.readAllBytes();
+        }
+        assertEquals(objectMapper.readTree(plain.getContentAsByteArray()).get("data"), objectMapper.readTree(inflated).get("data"));
+    }
+
+    @Test
+    void getProductById_shouldUseDistinctETagPerEncoding() throws Exception {
+        MockHttpServletResponse plain = getProduct(null);
+        MockHttpServletResponse gzip = getProduct("gzip");
+
+        assertEquals("\"p" + product.getId() + "-v" + product.getVersion() + "\"", plain.getHeader(HttpHeaders.ETAG));
+        assertEquals("\"p" + product.getId() + "-v" + product.getVersion() + "-gz\"", gzip.getHeader(HttpHeaders.ETAG));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), plain.getHeaders(HttpHeaders.VARY));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), gzip.getHeaders(HttpHeaders.VARY));
+
+        mockMvc.perform(get("/api/products/liste/{id}", product.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        mockMvc.perform(get("/api/products/liste/{id}", product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void getProductById_shouldHonourAcceptEncodingQuality() throws Exception {
+        assertNull(getProduct("gzip;q=0, identity").getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(getProduct("*, gzip; q=0").getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", getProduct("br, *;q=0.1").getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", getProduct("GZIP;Q=0.5").getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void getProductById_shouldNotServeStaleSnapshotAfterUpdate() throws Exception {
+        getProduct(null);
+
+        Product changes = Product.builder().name("Chaise pro").description("Nouvelle").price(BigDecimal.TEN).stock(3).build();
+        productService.update(product.getId(), changes);
+
+        JsonNode data = objectMapper.readTree(getProduct(null).getContentAsByteArray()).get("data");
+        assertEquals("Chaise pro", data.get("name").asText());
+        assertEquals(3, data.get("stock").asInt());
+    }
+
+    private MockHttpServletResponse getProduct(String acceptEncoding) throws Exception {
+        var request = get("/api/products/liste/{id}", product.getId());
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", ProductJsonSnapshotCache.CACHE_NAME).tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,358 @@
+package com.ff.products_service;
+
+import com.ff.products_service.entity.Image;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ImageRepository;
+import com.ff.products_service.repository.ProductRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie le nombre de requêtes SQL émises par endpoint de lecture, pour détecter tout retour du N+1
+ * sur les images (la sérialisation des produits ne doit pas déclencher de chargement paresseux).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductQueryCountTest {
+
+    private static final int PRODUCTS = 10;
+    private static final int IMAGES_PER_PRODUCT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> toSave = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.builder()
+                    .name("Produit " + i)
+                    .description("Description " + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .stock(i)
+                    .images(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                product.getImages().add(Image.builder()
+                        .url("http://img/" + i + "/" + j + ".jpg")
+                        .title("image " + j)
+                        .main(j == 0)
+                        .product(product)
+                        .build());
+            }
+            toSave.add(product);
+        }
+        products = productRepository.saveAll(toSave);
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void getProductById_shouldUseSingleQuery() throws Exception {
+        mockMvc.perform(get("/api/products/liste/{id}", products.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.images.length()").value(IMAGES_PER_PRODUCT));
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductById_shouldAnswerNotModifiedFromVersionOnly() throws Exception {
+        Long id = products.get(0).getId();
+        String eTag = mockMvc.perform(get("/api/products/liste/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/products/liste/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductStock_shouldChangeETagWhenStockIsReserved() throws Exception {
+        Product product = products.get(PRODUCTS - 1);
+        String eTag = mockMvc.perform(get("/api/products/{id}/stock", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products/{id}/stock", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/products/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":1}]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/{id}/stock", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(product.getStock() - 1));
+    }
+
+    @Test
+    void getProductStock_shouldServeRepeatedReadsFromCache() throws Exception {
+        Product product = products.get(PRODUCTS - 1);
+        String eTag = mockMvc.perform(get("/api/products/{id}/stock", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(product.getStock()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(1, SqlStatementCounter.count());
+
+        mockMvc.perform(get("/api/products/{id}/stock", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        mockMvc.perform(get("/api/products/{id}/stock", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void updateProduct_shouldReconcileLargeGalleryInConstantRoundTrips() throws Exception {
+        Product product = Product.builder()
+                .name("Galerie").description("Beaucoup d'images").price(BigDecimal.TEN).stock(1)
+                .images(new ArrayList<>())
+                .build();
+        for (int i = 0; i < 30; i++) {
+            product.getImages().add(Image.builder().url("http://img/g/" + i + ".jpg").title("image " + i).main(i == 0).product(product).build());
+        }
+        product = productRepository.save(product);
+
+        // 10 suppressions, 20 modifications, 20 ajouts
+        List<String> images = new ArrayList<>();
+        int deleted = 0;
+        for (Image image : product.getImages()) {
+            boolean delete = !image.isMain() && deleted++ < 10;
+            images.add("{\"id\":" + image.getId() + ",\"url\":\"" + image.getUrl() + "\",\"title\":\"modifiée\",\"main\":" + image.isMain() + ",\"toDelete\":" + delete + "}");
+        }
+        for (int i = 0; i < 20; i++) {
+            images.add("{\"url\":\"http://img/g/new" + i + ".jpg\",\"title\":\"nouvelle\",\"main\":false,\"toDelete\":false}");
+        }
+        String body = "{\"id\":" + product.getId() + ",\"name\":\"Galerie v2\",\"description\":\"Mise à jour\",\"price\":12,\"stock\":2,"
+                + "\"images\":[" + String.join(",", images) + "]}";
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(put("/api/products/modif/{id}", product.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Galerie v2"))
+                .andExpect(jsonPath("$.data.images.length()").value(40));
+
+        // lecture produit + images, séquences image et outbox (si le bloc d'ids alloué est épuisé), UPDATE produit,
+        // INSERT, UPDATE et DELETE d'images en batch, INSERT outbox
+        assertTrue(SqlStatementCounter.count() <= 8, "requêtes : " + SqlStatementCounter.count());
+        assertEquals(40, productRepository.findWithImagesById(product.getId()).orElseThrow().getImages().size());
+    }
+
+    @Test
+    void updateProduct_shouldRejectImageOfAnotherProduct() throws Exception {
+        Product target = products.get(0);
+        Image foreign = products.get(1).getImages().get(0);
+        String body = "{\"id\":" + target.getId() + ",\"name\":\"Produit\",\"description\":\"Desc\",\"price\":1,\"stock\":1,"
+                + "\"images\":[{\"id\":" + foreign.getId() + ",\"url\":\"u\",\"title\":\"t\",\"main\":true,\"toDelete\":false}]}";
+
+        mockMvc.perform(put("/api/products/modif/{id}", target.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteProducts_shouldUseBulkDeletes() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        ids.add(-1L);
+
+        mockMvc.perform(delete("/api/products").param("ids", ids.stream().map(String::valueOf).toArray(String[]::new)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(PRODUCTS));
+
+        // ids existants, DELETE des images, DELETE des produits, INSERT outbox en batch (+ séquence outbox si épuisée)
+        assertTrue(SqlStatementCounter.count() <= 5, "requêtes : " + SqlStatementCounter.count());
+        assertEquals(0, productRepository.count());
+        assertEquals(0, imageRepository.count());
+    }
+
+    @Test
+    void deleteProduct_shouldRemoveProductAndImagesWithBulkStatements() throws Exception {
+        mockMvc.perform(delete("/api/products/{id}", products.get(0).getId()))
+                .andExpect(status().isOk());
+
+        assertTrue(SqlStatementCounter.count() <= 5, "requêtes : " + SqlStatementCounter.count());
+        assertEquals(PRODUCTS - 1, productRepository.count());
+        assertEquals((PRODUCTS - 1) * IMAGES_PER_PRODUCT, imageRepository.count());
+
+        mockMvc.perform(delete("/api/products/{id}", products.get(0).getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllProducts_shouldUseSingleQuery() throws Exception {
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(PRODUCTS))
+                .andExpect(jsonPath("$.data[9].images.length()").value(IMAGES_PER_PRODUCT));
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductsPage_shouldUseTwoQueries() throws Exception {
+        mockMvc.perform(get("/api/products/page").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(4))
+                .andExpect(jsonPath("$.data.items[3].images.length()").value(IMAGES_PER_PRODUCT));
+
+        assertEquals(2, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductFieldsById_shouldSelectOnlyRequestedColumns() throws Exception {
+        Product product = products.get(2);
+
+        String etag = mockMvc.perform(get("/api/products/liste/{id}", product.getId()).param("fields", "price,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(product.getId()))
+                .andExpect(jsonPath("$.data.name").value("Produit 2"))
+                .andExpect(jsonPath("$.data.price").value(12))
+                .andExpect(jsonPath("$.data.description").doesNotExist())
+                .andExpect(jsonPath("$.data.images").doesNotExist())
+                .andExpect(jsonPath("$.data.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(1, SqlStatementCounter.count());
+
+        // Même version, autre jeu de champs : ETag différent
+        String fullEtag = mockMvc.perform(get("/api/products/liste/{id}", product.getId()).param("fields", "name,images"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.images.length()").value(IMAGES_PER_PRODUCT))
+                .andExpect(jsonPath("$.data.images[0].url").value("http://img/2/0.jpg"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, fullEtag);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/liste/{id}", product.getId()).param("fields", "NAME,price").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductsPageFields_shouldLoadImagesOnlyWhenRequested() throws Exception {
+        mockMvc.perform(get("/api/products/page").param("size", "4").param("fields", "stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(4))
+                .andExpect(jsonPath("$.data.items[3].stock").value(3))
+                .andExpect(jsonPath("$.data.items[3].name").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").isNotEmpty());
+        assertEquals(1, SqlStatementCounter.count());
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/products/page").param("size", "4").param("fields", "name,images"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[3].images.length()").value(IMAGES_PER_PRODUCT));
+        assertEquals(2, SqlStatementCounter.count());
+
+        mockMvc.perform(get("/api/products/page").param("fields", "name,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductCards_shouldUseSingleProjectionQuery() throws Exception {
+        Product bare = productRepository.save(Product.builder()
+                .name("Sans image").description("d").price(BigDecimal.ONE).stock(1).images(new ArrayList<>()).build());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/products/cards").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(PRODUCTS + 1))
+                .andExpect(jsonPath("$.data.items[0].mainImageUrl").value("http://img/0/0.jpg"))
+                .andExpect(jsonPath("$.data.items[0].images").doesNotExist())
+                .andExpect(jsonPath("$.data.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.data.items[" + PRODUCTS + "].id").value(bare.getId()))
+                .andExpect(jsonPath("$.data.items[" + PRODUCTS + "].mainImageUrl").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void getProductCards_shouldPageWithCursor() throws Exception {
+        String body = mockMvc.perform(get("/api/products/cards").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(4))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.data.nextCursor");
+
+        mockMvc.perform(get("/api/products/cards").param("size", "4").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].id").value(products.get(4).getId()))
+                .andExpect(jsonPath("$.data.items[0].mainImageUrl").value("http://img/4/0.jpg"));
+    }
+
+    @Test
+    void getProductsStock_shouldUseSingleProjectionQuery() throws Exception {
+        Product first = products.get(0);
+        Product last = products.get(PRODUCTS - 1);
+
+        mockMvc.perform(get("/api/products/stock").param("ids", first.getId() + "," + last.getId() + ",-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data['" + last.getId() + "']").value(last.getStock()));
+
+        assertEquals(1, SqlStatementCounter.count());
+    }
+
+    @Test
+    void streamProducts_shouldUseTwoQueriesPerChunk() throws Exception {
+        var result = mockMvc.perform(get("/api/products/stream").param("chunkSize", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // 3 chunks pleins ou partiels (4 + 4 + 2) : ids puis produits + images pour chacun
+        assertEquals(6, SqlStatementCounter.count());
+    }
+}
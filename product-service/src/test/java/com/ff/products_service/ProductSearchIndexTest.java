@@ -0,0 +1,95 @@
+package com.ff.products_service;
+
+import com.ff.products_service.dto.ProductSearchHit;
+import com.ff.products_service.dto.ProductSearchView;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductSearchIndex(productRepository);
+        index.index(1L, "Chaise ergonomique", "Une chaise de bureau réglable.", BigDecimal.valueOf(250));
+        index.index(2L, "Écran 27 pouces", "Écran haute définition pour le bureau.", BigDecimal.valueOf(300));
+        index.index(3L, "Bureau en chêne", "Grand bureau avec tiroirs, idéal avec une chaise assortie.", BigDecimal.valueOf(700));
+    }
+
+    @Test
+    void tokenize_shouldFoldAccentsAndDropStopWords() {
+        assertEquals(List.of("ecran", "haute", "definition", "coeur"), ProductSearchIndex.tokenize("Écran de haute DÉFINITION, cœur"));
+    }
+
+    @Test
+    void search_shouldIgnoreAccentsInQueryAndDocuments() {
+        List<ProductSearchHit> hits = index.search("ecran", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(2L, hits.get(0).getId());
+        assertEquals(3L, index.search("chene", 10).get(0).getId());
+    }
+
+    @Test
+    void search_shouldMatchPrefixes() {
+        List<ProductSearchHit> hits = index.search("ergo", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getId());
+    }
+
+    @Test
+    void search_shouldRankNameMatchesFirst() {
+        List<ProductSearchHit> hits = index.search("chaise", 10);
+
+        assertEquals(List.of(1L, 3L), hits.stream().map(ProductSearchHit::getId).toList());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void search_shouldReflectUpdatesAndRemovals() {
+        index.index(1L, "Tabouret", "Tabouret haut", BigDecimal.TEN);
+        index.remove(2L);
+
+        assertEquals(List.of(3L), index.search("chaise", 10).stream().map(ProductSearchHit::getId).toList());
+        assertTrue(index.search("ecran", 10).isEmpty());
+        assertEquals(1L, index.search("tabouret", 10).get(0).getId());
+    }
+
+    @Test
+    void rebuild_shouldReplaceIndexFromDatabase() {
+        when(productRepository.findMinId()).thenReturn(10L);
+        when(productRepository.findMaxId()).thenReturn(11L);
+        when(productRepository.findSearchViews(anyLong(), anyLong(), any()))
+                .thenReturn(List.of(view(10L, "Lampe de chevet"), view(11L, "Lampadaire")));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertTrue(index.search("chaise", 10).isEmpty());
+        assertEquals(2, index.search("lamp", 10).size());
+    }
+
+    private static ProductSearchView view(Long id, String name) {
+        return new ProductSearchView() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public String getDescription() { return name; }
+            public BigDecimal getPrice() { return BigDecimal.ONE; }
+        };
+    }
+}
@@ -1,15 +1,19 @@
 package com.ff.products_service;
 
 import com.ff.products_service.controller.ProductController;
+import com.ff.products_service.dto.ProductPageResponse;
 import com.ff.products_service.dto.ProductWithImagesRequest;
 import com.ff.products_service.dto.UpdateProductWithImagesRequest;
 import com.ff.products_service.entity.Image;
 import com.ff.products_service.entity.Product;
 import com.ff.products_service.service.ImageService;
+import com.ff.products_service.service.ProductJsonSnapshotCache;
 import com.ff.products_service.service.ProductService;
 import com.ff.products_service.utils.ApiRes;
+import com.ff.products_service.utils.CursorUtils;
 import com.ff.products_service.utils.ImageValidationUtils;
 import com.ff.products_service.utils.ProductMapper;
+import com.ff.products_service.utils.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -17,6 +21,9 @@ import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -25,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import org.mockito.MockedStatic;
 @SpringBootTest
+@ActiveProfiles("test")
 class ProductsServiceApplicationTests {
 
 	@InjectMocks
@@ -36,6 +44,8 @@ class ProductsServiceApplicationTests {
 	private ImageService imageService;
 	@Mock
 	private ProductMapper productMapper;
+	@Mock
+	private ProductJsonSnapshotCache productJsonSnapshotCache;
 	private Product product;
 	private Image img1;
 	private Image img2;
@@ -70,7 +80,7 @@ class ProductsServiceApplicationTests {
 	void getProductById_shouldReturnProduct() {
 		when(productService.findById(1L)).thenReturn(product);
 
-		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L);
+		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L, new ServletWebRequest(new MockHttpServletRequest()));
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
@@ -90,10 +100,29 @@ class ProductsServiceApplicationTests {
 
 	}
 
+	@Test
+	void getProductsPage_shouldReturnPageWithCursor() {
+		String nextCursor = CursorUtils.encode(1L);
+		when(productService.findPage(null, 1)).thenReturn(new ProductPageResponse(List.of(product), nextCursor, 1));
+
+		ResponseEntity<ApiRes<ProductPageResponse>> response = productController.getProductsPage(null, 1);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertNotNull(response.getBody());
+		assertEquals(1, response.getBody().getData().getItems().size());
+		assertEquals(1L, CursorUtils.decode(response.getBody().getData().getNextCursor()));
+	}
+
+	@Test
+	void cursor_shouldRejectTamperedValue() {
+		assertNull(CursorUtils.decode(null));
+		assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("not-a-cursor"));
+	}
+
 	@Test
 	void getProductStock_shouldReturnStock() {
 		when(productService.findById(1L)).thenReturn(product);
-		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L);
+		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L, new ServletWebRequest(new MockHttpServletRequest()));
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
@@ -102,19 +131,25 @@ class ProductsServiceApplicationTests {
 
 	@Test
 	void deleteProduct_shouldRemoveImagesAndProduct(){
-		when(productService.findById(1L)).thenReturn(product);
-		when(imageService.getImagesByProductId(1L)).thenReturn(List.of(img1, img2));
+		when(productService.delete(1L)).thenReturn(true);
 
 		var response = productController.deleteProduct(1L);
-		verify(imageService).deleteImageAllByProductId(1L);
 		verify(productService).delete(product.getId());
+		verifyNoInteractions(imageService);
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 	}
 
+	@Test
+	void deleteProduct_shouldThrowWhenProductNotFound(){
+		when(productService.delete(1L)).thenReturn(false);
+
+		assertThrows(ResourceNotFoundException.class, () -> productController.deleteProduct(1L));
+	}
+
 	@Test
 	void getProductStock_shouldReturnEmptyListWhenProductNotFound() {
 		when(productService.findById(1L)).thenReturn(product);
-		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L);
+		ResponseEntity<ApiRes<Product>> response = productController.getProductById(1L, new ServletWebRequest(new MockHttpServletRequest()));
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertNotNull(response.getBody());
 		assertEquals(product.getId(), response.getBody().getData().getId());
@@ -140,17 +175,17 @@ class ProductsServiceApplicationTests {
 		request.setImages(List.of(imageRequest));
 
 		// Mock comportement
-		when(productService.findById(1L)).thenReturn(product);
-		when(imageService.findImageById(1L)).thenReturn(img1);
-		when(productService.create(any())).thenReturn(product);
+		when(productService.updateWithImages(1L, request)).thenReturn(product);
 
 		// Exécution
 		var response = productController.updateProduct(1L, request);
 
 		// Vérifications
 		assertEquals(HttpStatus.OK, response.getStatusCode());
-		verify(productService).create(any(Product.class));
-		verify(imageService).createImage(any(Image.class));
+		assertSame(product, response.getBody().getData());
+		verify(productService).updateWithImages(1L, request);
+		verifyNoInteractions(imageService);
+		verify(productService, never()).findById(any());
 	}
 
 	@Test
@@ -195,10 +230,9 @@ class ProductsServiceApplicationTests {
 		request.setPrice(BigDecimal.TEN);
 		request.setStock(2);
 
-		when(productService.findById(1L)).thenReturn(product);
-
 		Exception ex = assertThrows(IllegalArgumentException.class,
 				() -> productController.updateProduct(1L, request));
+		verify(productService, never()).updateWithImages(any(), any());
 
 		assertEquals("Il doit y avoir une image principale.", ex.getMessage());
 	}
@@ -227,17 +261,14 @@ class ProductsServiceApplicationTests {
 
 		request.setImages(List.of(imageToAdd, imageToUpdate));
 
-		when(productService.findById(1L)).thenReturn(product);
-		when(imageService.findImageById(20L)).thenReturn(new Image());
-		when(productService.create(any(Product.class))).thenReturn(product);
+		when(productService.updateWithImages(1L, request)).thenReturn(product);
 
 		ResponseEntity<ApiRes<Product>> response = productController.updateProduct(1L, request);
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Product has been successfully modified", response.getBody().getMessage());
-		verify(productService).create(any(Product.class));
-		verify(imageService, times(2)).createImage(any(Image.class));
+		verify(productService).updateWithImages(1L, request);
 
 	}
 
@@ -256,10 +287,9 @@ class ProductsServiceApplicationTests {
 		request.setPrice(BigDecimal.TEN);
 		request.setStock(2);
 
-		when(productService.findById(1L)).thenReturn(product);
-
 		Exception ex = assertThrows(IllegalArgumentException.class,
 				() -> productController.updateProduct(1L, request));
+		verify(productService, never()).updateWithImages(any(), any());
 
 		assertEquals("Une seule image peut être marquée comme principale.", ex.getMessage());
 	}
@@ -280,10 +310,9 @@ class ProductsServiceApplicationTests {
 		request.setPrice(BigDecimal.TEN);
 		request.setStock(2);
 
-		when(productService.findById(1L)).thenReturn(product);
-
 		Exception ex = assertThrows(IllegalArgumentException.class,
 				() -> productController.updateProduct(1L, request));
+		verify(productService, never()).updateWithImages(any(), any());
 
 		assertEquals("Une image principale ne peut pas être supprimée directement. Veuillez d’abord en définir une autre comme principale.", ex.getMessage());
 	}
@@ -303,14 +332,12 @@ class ProductsServiceApplicationTests {
 		request.setPrice(BigDecimal.TEN);
 		request.setStock(2);
 
-		when(productService.findById(1L)).thenReturn(product);
-		when(imageService.findImageById(1L)).thenReturn(img1);
-		when(productService.create(any())).thenReturn(product);
+		when(productService.updateWithImages(1L, request)).thenReturn(product);
 
 		ResponseEntity<ApiRes<Product>> response = productController.updateProduct(1L, request);
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
-		verify(productService).create(any(Product.class));
+		verify(productService).updateWithImages(1L, request);
 	}
 
 }
@@ -0,0 +1,125 @@
+package com.ff.products_service;
+
+import com.ff.products_service.config.ReadReplicaRoutingDataSource;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deux bases H2 jouent les réplicas : la réplication est simulée en copiant le primaire (SCRIPT / RUNSCRIPT),
+ * puis chaque base reçoit un stock différent pour savoir d'où vient chaque lecture.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "product.datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_0_URL,
+        "product.datasource.replicas[0].username=sa",
+        "product.datasource.replicas[1].url=" + ReadReplicaRoutingTest.REPLICA_1_URL,
+        "product.datasource.replicas[1].username=sa"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;MODE=MSSQLServer";
+    static final String REPLICA_0_URL = "jdbc:h2:mem:routing_replica0;DB_CLOSE_DELAY=-1;MODE=MSSQLServer";
+    static final String REPLICA_1_URL = "jdbc:h2:mem:routing_replica1;DB_CLOSE_DELAY=-1;MODE=MSSQLServer";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final JdbcTemplate primary = jdbc(PRIMARY_URL);
+    private final JdbcTemplate replica0 = jdbc(REPLICA_0_URL);
+    private final JdbcTemplate replica1 = jdbc(REPLICA_1_URL);
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldBeSpreadAcrossReplicas() throws Exception {
+        Long id = saveAndReplicate();
+
+        List<Integer> stocks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            stocks.add(productService.findPage(null, 10).getItems().get(0).getStock());
+        }
+
+        assertEquals(2, stocks.stream().filter(stock -> stock == 1).count(), "lectures : " + stocks);
+        assertEquals(2, stocks.stream().filter(stock -> stock == 2).count(), "lectures : " + stocks);
+        assertEquals(10, productRepository.findStockById(id).orElseThrow());
+    }
+
+    @Test
+    void writesAndReadYourWrites_shouldStayOnPrimary() throws Exception {
+        Long id = saveAndReplicate();
+
+        assertEquals(15, productService.adjustStock(id, 5).get(id));
+        // Lecture hors transaction readOnly : voit l'écriture précédente
+        assertEquals(15, productService.getStockSnapshot(id).stock());
+        assertEquals(15, primary.queryForObject("select stock from product where id = ?", Integer.class, id));
+        // Les réplicas, non répliqués depuis, ont toujours leur propre valeur
+        assertEquals(1, replica0.queryForObject("select stock from product where id = ?", Integer.class, id));
+    }
+
+    @Test
+    void unreachableReplica_shouldFallBackToPrimary() throws Exception {
+        DataSource primaryDataSource = new DriverManagerDataSource(PRIMARY_URL, "sa", "");
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/nowhere", "sa", "");
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primaryDataSource, List.of(unreachable), 60000);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try (Connection connection = routing.getConnection()) {
+                    assertEquals("jdbc:h2:mem:routing_primary", connection.getMetaData().getURL());
+                }
+            }
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    // Produit enregistré sur le primaire (stock 10), copié sur les réplicas qui reçoivent les stocks 1 et 2
+    private Long saveAndReplicate() throws Exception {
+        Long id = productRepository.save(Product.builder()
+                .name("Fauteuil").description("Fauteuil").price(BigDecimal.TEN).stock(10).build()).getId();
+        Path script = Files.createTempFile("products", ".sql");
+        try {
+            primary.execute("SCRIPT TO '" + script + "'");
+            for (JdbcTemplate replica : List.of(replica0, replica1)) {
+                replica.execute("DROP ALL OBJECTS");
+                replica.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        replica0.update("update product set stock = 1 where id = ?", id);
+        replica1.update("update product set stock = 2 where id = ?", id);
+        return id;
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
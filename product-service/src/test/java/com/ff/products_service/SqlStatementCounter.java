@@ -0,0 +1,46 @@
+package com.ff.products_service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate (enregistré dans application-test.properties).
+ * Avec le batching JDBC, une requête préparée correspond à un aller-retour vers la base.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final AtomicReference<Hook> BEFORE_STATEMENT = new AtomicReference<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        Hook hook = BEFORE_STATEMENT.get();
+        if (hook != null && sql.trim().toLowerCase(Locale.ROOT).startsWith(hook.prefix()) && BEFORE_STATEMENT.compareAndSet(hook, null)) {
+            hook.action().run();
+        }
+        return sql;
+    }
+
+    /**
+     * Exécute une fois {@code action} juste avant la première requête commençant par {@code prefix}
+     * (par exemple une écriture concurrente entre la lecture et le flush d'une transaction).
+     */
+    public static void beforeNext(String prefix, Runnable action) {
+        BEFORE_STATEMENT.set(new Hook(prefix.toLowerCase(Locale.ROOT), action));
+    }
+
+    private record Hook(String prefix, Runnable action) {
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+}
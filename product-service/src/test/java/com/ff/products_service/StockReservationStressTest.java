@@ -0,0 +1,147 @@
+package com.ff.products_service;
+
+import com.ff.products_service.dto.StockReservationRequest;
+import com.ff.products_service.entity.Product;
+import com.ff.products_service.repository.ProductRepository;
+import com.ff.products_service.service.ProductService;
+import com.ff.products_service.utils.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationStressTest {
+
+    private static final int THREADS = 300;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void reserveStock_shouldNeverOversellUnderContention() throws Exception {
+        Long sku = save("Console", INITIAL_STOCK).getId();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    productService.reserveStock(List.of(new StockReservationRequest.Item(sku, 1)));
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+
+        log.debug("{} réservations concurrentes en {} ms ({} req/s)",
+                THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(THREADS / (elapsedNanos / 1e9)));
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, productRepository.findStockById(sku).orElseThrow());
+    }
+
+    @Test
+    void reserveStock_shouldBeAllOrNothing() {
+        Long available = save("Clavier", 5).getId();
+        Long scarce = save("Souris", 1).getId();
+
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(List.of(
+                new StockReservationRequest.Item(available, 2),
+                new StockReservationRequest.Item(scarce, 2))));
+
+        assertEquals(5, productRepository.findStockById(available).orElseThrow());
+        assertEquals(1, productRepository.findStockById(scarce).orElseThrow());
+    }
+
+    @Test
+    void reserveStock_shouldRejectTooManyProductsBeforeAnyUpdate() {
+        Long sku = save("Lampe", 5).getId();
+        List<StockReservationRequest.Item> items = new ArrayList<>();
+        items.add(new StockReservationRequest.Item(sku, 1));
+        for (long i = 1; i <= 500; i++) {
+            items.add(new StockReservationRequest.Item(-i, 1));
+        }
+
+        SqlStatementCounter.reset();
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveStock(items));
+
+        assertEquals(0, SqlStatementCounter.count());
+        assertEquals(5, productRepository.findStockById(sku).orElseThrow());
+    }
+
+    @Test
+    void releaseStock_shouldRestoreReservedQuantity() {
+        Long sku = save("Écran", 3).getId();
+
+        productService.reserveStock(List.of(new StockReservationRequest.Item(sku, 3)));
+        var stocks = productService.releaseStock(List.of(new StockReservationRequest.Item(sku, 2)));
+
+        assertEquals(2, stocks.get(sku));
+        assertEquals(2, productService.getStockSnapshot(sku).stock());
+    }
+
+    @Test
+    void reserveStock_shouldIncrementVersionOfRowInsertedWithoutVersion() {
+        // Ligne écrite hors JPA (import, ancienne base) : la colonne version prend sa valeur par défaut
+        jdbcTemplate.update("insert into product (id, name, description, price, stock) values (next value for product_seq, 'Casque', 'Casque', 10, 4)");
+        Long sku = jdbcTemplate.queryForObject("select id from product where name = 'Casque'", Long.class);
+        assertEquals(0L, productService.findVersion(sku).getVersion());
+
+        productService.reserveStock(List.of(new StockReservationRequest.Item(sku, 1)));
+
+        assertEquals(1L, productService.findVersion(sku).getVersion());
+        assertEquals(3, productRepository.findStockById(sku).orElseThrow());
+    }
+
+    private Product save(String name, int stock) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .description(name)
+                .price(BigDecimal.TEN)
+                .stock(stock)
+                .build());
+    }
+}